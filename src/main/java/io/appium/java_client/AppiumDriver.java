@@ -19,11 +19,17 @@ package io.appium.java_client;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import io.appium.java_client.internal.JsonToMobileElementConverter;
+import io.appium.java_client.internal.SelectorRecorder;
 import io.appium.java_client.remote.AppiumCommandExecutor;
 import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.StreamingFileTransfer;
 import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumDriverLocalServiceGroup;
+import io.appium.java_client.service.local.AppiumDriverLocalServicePool;
 import io.appium.java_client.service.local.AppiumServiceBuilder;
 import org.openqa.selenium.*;
 import org.openqa.selenium.html5.Location;
@@ -32,11 +38,17 @@ import org.openqa.selenium.remote.html5.RemoteLocationContext;
 import org.openqa.selenium.remote.http.HttpMethod;
 
 import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static io.appium.java_client.MobileCommand.*;
 import org.openqa.selenium.remote.http.HttpClient;
@@ -52,19 +64,49 @@ import org.openqa.selenium.remote.http.HttpClient;
  * {@link MobileElement} and its subclasses that designed specifically for each target mobile OS (still Android and iOS)
  */
 @SuppressWarnings("unchecked")
-public abstract class AppiumDriver<RequiredElementType extends WebElement> extends DefaultGenericMobileDriver<RequiredElementType> {
+public abstract class AppiumDriver<RequiredElementType extends WebElement> extends DefaultGenericMobileDriver<RequiredElementType>
+        implements FindsByMultipleSelectors<RequiredElementType> {
 
     private final static ErrorHandler errorHandler = new ErrorHandler(
             new ErrorCodesMobile(), true);
+    private final static String PULL_FILE_URL = "/session/:sessionId/appium/device/pull_file";
+    private final static String PULL_FOLDER_URL = "/session/:sessionId/appium/device/pull_folder";
+    protected final static String PUSH_FILE_URL = "/session/:sessionId/appium/device/push_file";
     private URL remoteAddress;
     private RemoteLocationContext locationContext;
     private ExecuteMethod executeMethod;
+    //the last implicit wait value (in milliseconds) which has been
+    //accepted by the server. NULL means that the value is unknown
+    private Long implicitlyWaitMillis;
+    //the implicit wait value (in milliseconds) which has been deferred. It is sent to the server
+    //when an element is going to be found. NULL means that nothing has been deferred
+    private Long requiredImplicitlyWaitMillis;
+    //the current context which is known on the client side.
+    //NULL means that the context is unknown and it should be requested
+    private volatile String currentContext;
+    private volatile boolean isContextFixed;
+    private StreamingFileTransfer fileTransfer;
+    private boolean isFileTransferUnavailable;
+    private volatile boolean isComplexFindUnsupported;
 
     // frequently used command parameters
     protected final String KEY_CODE = "keycode";
     protected final String PATH = "path";
     private final String SETTINGS = "settings";
 
+    private final static String TIMEOUT_TYPE = "type";
+    private final static String IMPLICIT_TIMEOUT_TYPE = "implicit";
+    private final static String TIMEOUT_MS = "ms";
+    private final static String CONTEXT_NAME = "name";
+    private final static String SELECTORS = "selectors";
+    //implicit wait affects only these commands
+    private final static Set<String> IMPLICITLY_WAITING_COMMANDS = ImmutableSet.of(DriverCommand.FIND_ELEMENT,
+            DriverCommand.FIND_ELEMENTS, DriverCommand.FIND_CHILD_ELEMENT, DriverCommand.FIND_CHILD_ELEMENTS,
+            COMPLEX_FIND);
+    //these commands may change the current context of the session
+    private final static Set<String> CONTEXT_RESETTING_COMMANDS = ImmutableSet.of(DriverCommand.NEW_SESSION,
+            DriverCommand.QUIT, RESET, LAUNCH_APP, CLOSE_APP, RUN_APP_IN_BACKGROUND, START_ACTIVITY);
+
     private final String LANGUAGE_PARAM = "language";
     private final String STRING_FILE_PARAM = "stringFile";
 
@@ -126,6 +168,84 @@ public abstract class AppiumDriver<RequiredElementType extends WebElement> exten
         return (List<RequiredElementType>) findElements("accessibility id", using);
     }
 
+    /**
+     * Selectors are sent to the server by one {@link MobileCommand#COMPLEX_FIND} request with
+     * the {@code {"selectors": [{"using": ..., "value": ...}, ...]}} body. The server is expected
+     * to respond with a list of found element lists, one per selector.
+     * If some selector can't be expressed as a (using, value) pair (e.g. a chained one)
+     * or the request is rejected then elements are found selector by selector.
+     * Appium 1.x servers don't implement such requests. They respond with an error
+     * (not necessarily an unknown command one), so after the first failure of any kind
+     * the request is not sent by this driver again and each next call costs one
+     * request per selector.
+     *
+     * @see FindsByMultipleSelectors#findElementsBySelectors(List)
+     */
+    @Override
+    public List<List<RequiredElementType>> findElementsBySelectors(List<By> selectors) {
+        List<List<RequiredElementType>> result = new ArrayList<>();
+        List<List<Map<String, String>>> recordedSelectors = new ArrayList<>();
+        List<Map<String, String>> requestedSelectors = new ArrayList<>();
+        for (By by: selectors) {
+            List<Map<String, String>> recorded = SelectorRecorder.record(this, by);
+            if (recorded == null) {
+                requestedSelectors = null;
+                break;
+            }
+            recordedSelectors.add(recorded);
+            requestedSelectors.addAll(recorded);
+        }
+
+        List<?> found = null;
+        if (requestedSelectors != null && !requestedSelectors.isEmpty() && !isComplexFindUnsupported) {
+            found = complexFind(requestedSelectors);
+        }
+
+        if (found == null) {
+            for (By by: selectors) {
+                result.add(findElements(by));
+            }
+            return result;
+        }
+
+        //a By may be expressed by several selectors. Their results are joined
+        int index = 0;
+        for (List<Map<String, String>> recorded: recordedSelectors) {
+            List<RequiredElementType> elements = new ArrayList<>();
+            for (int i = 0; i < recorded.size(); i++) {
+                elements.addAll((List<RequiredElementType>) found.get(index++));
+            }
+            result.add(elements);
+        }
+        return result;
+    }
+
+    //returns NULL if the server hasn't found elements by several selectors at once
+    private List<?> complexFind(List<Map<String, String>> selectors) {
+        Object value;
+        try {
+            value = execute(COMPLEX_FIND, ImmutableMap.of(SELECTORS, selectors)).getValue();
+        } catch (WebDriverException e) {
+            //servers which don't know the command often respond with a generic error
+            //instead of the unknown command one. Selectors are used one by one further
+            isComplexFindUnsupported = true;
+            return null;
+        }
+
+        if (value instanceof List && ((List<?>) value).size() == selectors.size()) {
+            boolean areAllLists = true;
+            for (Object found: (List<?>) value) {
+                areAllLists = areAllLists && found instanceof List;
+            }
+            if (areAllLists) {
+                return (List<?>) value;
+            }
+        }
+        //the command has some other meaning on this server (e.g. the legacy UiSelector lookup)
+        isComplexFindUnsupported = true;
+        return null;
+    }
+
     /**
      * @param param
      *            is a parameter name
@@ -159,7 +279,7 @@ public abstract class AppiumDriver<RequiredElementType extends WebElement> exten
         return builder.build();
     }
 
-    private AppiumDriver(HttpCommandExecutor executor, Capabilities capabilities){
+    private AppiumDriver(AppiumCommandExecutor executor, Capabilities capabilities){
         super(executor, capabilities);
         this.executeMethod = new AppiumExecutionMethod(this);
         locationContext = new RemoteLocationContext(executeMethod);
@@ -187,6 +307,28 @@ public abstract class AppiumDriver<RequiredElementType extends WebElement> exten
                 getMobileCommands(), service, httpClientFactory), desiredCapabilities);
     }
 
+    public AppiumDriver(AppiumDriverLocalServicePool servicePool, Capabilities desiredCapabilities) {
+        this(new AppiumCommandExecutor(
+                getMobileCommands(), servicePool), desiredCapabilities);
+    }
+
+    public AppiumDriver(AppiumDriverLocalServicePool servicePool, HttpClient.Factory httpClientFactory,
+                        Capabilities desiredCapabilities) {
+        this(new AppiumCommandExecutor(
+                getMobileCommands(), servicePool, httpClientFactory), desiredCapabilities);
+    }
+
+    public AppiumDriver(AppiumDriverLocalServiceGroup serviceGroup, Capabilities desiredCapabilities) {
+        this(new AppiumCommandExecutor(
+                getMobileCommands(), serviceGroup), desiredCapabilities);
+    }
+
+    public AppiumDriver(AppiumDriverLocalServiceGroup serviceGroup, HttpClient.Factory httpClientFactory,
+                        Capabilities desiredCapabilities) {
+        this(new AppiumCommandExecutor(
+                getMobileCommands(), serviceGroup, httpClientFactory), desiredCapabilities);
+    }
+
     public AppiumDriver(AppiumServiceBuilder builder, Capabilities desiredCapabilities) {
         this(builder.build(), desiredCapabilities);
     }
@@ -203,9 +345,125 @@ public abstract class AppiumDriver<RequiredElementType extends WebElement> exten
         this(AppiumDriverLocalService.buildDefaultService(), desiredCapabilities);
     }
 
+    //commands without parameters go through execute(String, Map) too, so the context is tracked
     @Override
     protected Response execute(String command) {
-        return super.execute(command, ImmutableMap.<String, Object>of());
+        return execute(command, ImmutableMap.<String, Object>of());
+    }
+
+    /**
+     * Implicit wait commands are sent to the server immediately. Values which are deferred by
+     * {@link #deferImplicitlyWait(long, TimeUnit)} are sent before the next command which finds elements.
+     *
+     * Also the current context is tracked here. It is changed when the context is switched
+     * and it is reset by commands which start/stop a session or an app.
+     */
+    @Override
+    public Response execute(String driverCommand, Map<String, ?> parameters) {
+        Long requiredImplicitlyWait = getRequiredImplicitlyWaitMillis(driverCommand, parameters);
+        if (requiredImplicitlyWait == null) {
+            if (IMPLICITLY_WAITING_COMMANDS.contains(driverCommand)) {
+                applyRequiredImplicitlyWait();
+            }
+            if (DriverCommand.NEW_SESSION.equals(driverCommand) || DriverCommand.QUIT.equals(driverCommand)) {
+                resetImplicitlyWait();
+                if (getElementConverter() instanceof JsonToMobileElementConverter) {
+                    ((JsonToMobileElementConverter) getElementConverter()).clearInternedElements();
+                }
+            }
+            if (CONTEXT_RESETTING_COMMANDS.contains(driverCommand) && !isContextFixed) {
+                currentContext = null;
+            }
+
+            Response response = super.execute(driverCommand, parameters);
+            if (DriverCommand.SWITCH_TO_CONTEXT.equals(driverCommand) && parameters != null) {
+                currentContext = String.valueOf(parameters.get(CONTEXT_NAME));
+            }
+            return response;
+        }
+
+        synchronized (this) {
+            //if the command fails then the actual value is unknown
+            implicitlyWaitMillis = null;
+            Response response = super.execute(driverCommand, parameters);
+            implicitlyWaitMillis = requiredImplicitlyWait;
+            requiredImplicitlyWaitMillis = requiredImplicitlyWait;
+            return response;
+        }
+    }
+
+    /**
+     * Defers the implicit wait. The value is sent before the next command which finds elements
+     * and only when it differs from the last value which has been set successfully.
+     * Page object locators switch implicit wait to zero before a lookup and restore it after,
+     * so the server keeps zero while locators are used one after another. An error of an invalid value
+     * is thrown by the next lookup. Use {@code manage().timeouts().implicitlyWait(...)} to send
+     * the value immediately.
+     *
+     * @param time is the implicit wait value
+     * @param timeUnit is the time unit of the value
+     */
+    public synchronized void deferImplicitlyWait(long time, TimeUnit timeUnit) {
+        requiredImplicitlyWaitMillis = TimeUnit.MILLISECONDS.convert(time, timeUnit);
+    }
+
+    private synchronized void resetImplicitlyWait() {
+        implicitlyWaitMillis = null;
+        requiredImplicitlyWaitMillis = null;
+    }
+
+    //sends the required implicit wait if the server has another value
+    private synchronized void applyRequiredImplicitlyWait() {
+        if (requiredImplicitlyWaitMillis == null || requiredImplicitlyWaitMillis.equals(implicitlyWaitMillis)) {
+            return;
+        }
+
+        //if the command fails then the actual value is unknown
+        implicitlyWaitMillis = null;
+        //the same command as RemoteTimeouts sends
+        super.execute(DriverCommand.SET_TIMEOUT,
+                ImmutableMap.of(TIMEOUT_TYPE, IMPLICIT_TIMEOUT_TYPE, TIMEOUT_MS, requiredImplicitlyWaitMillis));
+        implicitlyWaitMillis = requiredImplicitlyWaitMillis;
+    }
+
+    private static Long getRequiredImplicitlyWaitMillis(String driverCommand, Map<String, ?> parameters) {
+        if (parameters == null) {
+            return null;
+        }
+
+        boolean isImplicitlyWait = DriverCommand.IMPLICITLY_WAIT.equals(driverCommand) ||
+                (DriverCommand.SET_TIMEOUT.equals(driverCommand) && IMPLICIT_TIMEOUT_TYPE.equals(parameters.get(TIMEOUT_TYPE)));
+        if (!isImplicitlyWait) {
+            return null;
+        }
+
+        Object millis = parameters.get(TIMEOUT_MS);
+        if (!(millis instanceof Number)) {
+            return null;
+        }
+        return ((Number) millis).longValue();
+    }
+
+    /**
+     * @param isInterning is the flag which signalizes that the same element instance should be
+     *                    returned for the same element id during the session. It reduces allocations when
+     *                    large results of findElements/executeScript are walked repeatedly.
+     */
+    public void setElementInterning(boolean isInterning) {
+        if (!(getElementConverter() instanceof JsonToMobileElementConverter)) {
+            throw new WebDriverException("Elements can't be interned by "
+                    + getElementConverter().getClass().getName());
+        }
+        ((JsonToMobileElementConverter) getElementConverter()).setInterning(isInterning);
+    }
+
+    /**
+     * @return the implicit wait value in milliseconds which has been accepted by the server last time.
+     * A deferred value is not returned until it is sent. NULL is returned if the value is unknown
+     * (it has not been set since the session was created or the last attempt to set it has failed).
+     */
+    public synchronized Long getImplicitlyWaitMillis() {
+        return implicitlyWaitMillis;
     }
 
     @Override
@@ -304,6 +562,80 @@ public abstract class AppiumDriver<RequiredElementType extends WebElement> exten
         return DatatypeConverter.parseBase64Binary(base64String);
     }
 
+    /**
+     * @see InteractsWithFiles#pullFile(String, OutputStream)
+     */
+    @Override
+    public void pullFile(String remotePath, OutputStream outputStream) {
+        StreamingFileTransfer transfer = getFileTransfer();
+        if (transfer == null) {
+            writeTo(outputStream, pullFile(remotePath));
+            return;
+        }
+        transfer.pull(getSessionId(), PULL_FILE, PULL_FILE_URL,
+                ImmutableMap.of(PATH, remotePath), outputStream);
+    }
+
+    private static void writeTo(OutputStream outputStream, byte[] content) {
+        try {
+            outputStream.write(content);
+        } catch (IOException e) {
+            throw new WebDriverException(e);
+        }
+    }
+
+    /**
+     * @see InteractsWithFiles#pullFile(String, Path)
+     */
+    @Override
+    public void pullFile(String remotePath, Path destination) {
+        try (OutputStream outputStream = Files.newOutputStream(destination)) {
+            pullFile(remotePath, outputStream);
+        } catch (IOException e) {
+            throw new WebDriverException(e);
+        }
+    }
+
+    /**
+     * @see InteractsWithFiles#pullFolder(String, OutputStream)
+     */
+    @Override
+    public void pullFolder(String remotePath, OutputStream outputStream) {
+        StreamingFileTransfer transfer = getFileTransfer();
+        if (transfer == null) {
+            writeTo(outputStream, pullFolder(remotePath));
+            return;
+        }
+        transfer.pull(getSessionId(), PULL_FOLDER, PULL_FOLDER_URL,
+                ImmutableMap.of(PATH, remotePath), outputStream);
+    }
+
+    /**
+     * @see InteractsWithFiles#pullFolder(String, Path)
+     */
+    @Override
+    public void pullFolder(String remotePath, Path destination) {
+        try (OutputStream outputStream = Files.newOutputStream(destination)) {
+            pullFolder(remotePath, outputStream);
+        } catch (IOException e) {
+            throw new WebDriverException(e);
+        }
+    }
+
+    /**
+     * @return the helper which transfers files without keeping them in memory. NULL is returned
+     * if the driver uses its own {@link HttpClient.Factory} which is not
+     * {@link io.appium.java_client.remote.PooledHttpClientFactory}. Files are transferred
+     * by usual commands then, so settings of the factory are kept.
+     */
+    protected synchronized StreamingFileTransfer getFileTransfer() {
+        if (fileTransfer == null && !isFileTransferUnavailable) {
+            fileTransfer = ((AppiumCommandExecutor) getCommandExecutor()).createFileTransfer(errorHandler);
+            isFileTransferUnavailable = fileTransfer == null;
+        }
+        return fileTransfer;
+    }
+
     /**
      * @see PerformsTouchActions#performTouchAction(TouchAction)
      */
@@ -545,10 +877,34 @@ public abstract class AppiumDriver<RequiredElementType extends WebElement> exten
             throw new IllegalArgumentException("Must supply a context name");
         }
 
-        execute(DriverCommand.SWITCH_TO_CONTEXT, ImmutableMap.of("name", name));
+        execute(DriverCommand.SWITCH_TO_CONTEXT, ImmutableMap.of(CONTEXT_NAME, name));
         return AppiumDriver.this;
     }
 
+    /**
+     * Declares that the session is going to stay in the given context (e.g. native-only or webview-only
+     * sessions). After that {@link #getContext()} doesn't send any request to the server
+     * and the known context is not reset when an app is launched/closed/reset etc.
+     * {@link #context(String)} still can be used. The new context is fixed then.
+     *
+     * @param name is the name of a context. E.g. NATIVE_APP or WEBVIEW_1
+     */
+    public void fixContext(String name) {
+        if (!_isNotNullOrEmpty(name)) {
+            throw new IllegalArgumentException("Must supply a context name");
+        }
+        currentContext = name;
+        isContextFixed = true;
+    }
+
+    /**
+     * Cancels the effect of {@link #fixContext(String)}. The known
+     * context is going to be reset by commands which start/stop an app.
+     */
+    public void unfixContext() {
+        isContextFixed = false;
+    }
+
     @Override
     public Set<String> getContextHandles() {
         Response response = execute(DriverCommand.GET_CONTEXT_HANDLES);
@@ -563,13 +919,24 @@ public abstract class AppiumDriver<RequiredElementType extends WebElement> exten
         }
     }
 
+    /**
+     * The current context is requested from the server only if it is unknown
+     * on the client side. It is known after the context has been switched by {@link #context(String)},
+     * fixed by {@link #fixContext(String)} or requested previously.
+     */
     @Override
     public String getContext() {
+        String knownContext = currentContext;
+        if (knownContext != null) {
+            return knownContext;
+        }
+
         String contextName = String.valueOf(execute(
                 DriverCommand.GET_CURRENT_CONTEXT_HANDLE).getValue());
         if (contextName.equals("null")) {
             return null;
         }
+        currentContext = contextName;
         return contextName;
     }
 
@@ -702,13 +1069,13 @@ public abstract class AppiumDriver<RequiredElementType extends WebElement> exten
                 .put(REPLACE_VALUE,
                         postC("/session/:sessionId/appium/element/:id/replace_value"))
                 .put(PULL_FILE,
-                        postC("/session/:sessionId/appium/device/pull_file"))
+                        postC(PULL_FILE_URL))
                 .put(PULL_FOLDER,
-                        postC("/session/:sessionId/appium/device/pull_folder"))
+                        postC(PULL_FOLDER_URL))
                 .put(HIDE_KEYBOARD,
                         postC("/session/:sessionId/appium/device/hide_keyboard"))
                 .put(PUSH_FILE,
-                        postC("/session/:sessionId/appium/device/push_file"))
+                        postC(PUSH_FILE_URL))
                 .put(RUN_APP_IN_BACKGROUND,
                         postC("/session/:sessionId/appium/app/background"))
                 .put(PERFORM_TOUCH_ACTION,
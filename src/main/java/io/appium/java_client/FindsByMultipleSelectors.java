@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+public interface FindsByMultipleSelectors<T extends WebElement> {
+
+    /**
+     * Finds elements by several selectors at once. When the server supports it
+     * all selectors are sent by one request. Otherwise elements are found
+     * selector by selector.
+     *
+     * @param selectors are the selectors to find elements by
+     * @return the list of found element lists. The i-th list contains elements
+     *         found by the i-th selector. It is empty if nothing is found.
+     */
+    List<List<T>> findElementsBySelectors(List<By> selectors);
+}
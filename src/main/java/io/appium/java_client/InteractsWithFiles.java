@@ -16,6 +16,9 @@
 
 package io.appium.java_client;
 
+import java.io.OutputStream;
+import java.nio.file.Path;
+
 public interface InteractsWithFiles {
 
     /**
@@ -43,4 +46,48 @@ public interface InteractsWithFiles {
      */
     byte[] pullFolder(String remotePath);
 
+    /**
+     * Pull a file from the device and write its decoded content to the given stream.
+     * The content is decoded while the response is being read, so the whole file
+     * is never kept in memory.
+     *
+     * @param remotePath
+     *            the same as for {@link #pullFile(String)}
+     * @param outputStream
+     *            receives decoded bytes. It is not closed after the pulling.
+     */
+    void pullFile(String remotePath, OutputStream outputStream);
+
+    /**
+     * Pull a file from the device and save it to the given local file.
+     *
+     * @param remotePath
+     *            the same as for {@link #pullFile(String)}
+     * @param destination
+     *            is the local file. It is created or overwritten.
+     */
+    void pullFile(String remotePath, Path destination);
+
+    /**
+     * Pull a folder from the device as a ZIP archive and write it to the given stream.
+     * The archive is decoded while the response is being read, so it is never
+     * kept in memory.
+     *
+     * @param remotePath
+     *            the same as for {@link #pullFolder(String)}
+     * @param outputStream
+     *            receives bytes of the ZIP archive. It is not closed after the pulling.
+     */
+    void pullFolder(String remotePath, OutputStream outputStream);
+
+    /**
+     * Pull a folder from the device and save it to the given local ZIP file.
+     *
+     * @param remotePath
+     *            the same as for {@link #pullFolder(String)}
+     * @param destination
+     *            is the local file. It is created or overwritten.
+     */
+    void pullFolder(String remotePath, Path destination);
+
 }
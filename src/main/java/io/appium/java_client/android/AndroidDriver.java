@@ -17,21 +17,30 @@
 package io.appium.java_client.android;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.AppiumSetting;
 import io.appium.java_client.FindsByAndroidUIAutomator;
 import io.appium.java_client.NetworkConnectionSetting;
 import io.appium.java_client.android.internal.JsonToAndroidElementConverter;
+import io.appium.java_client.remote.StreamingFileTransfer;
 import io.appium.java_client.remote.MobilePlatform;
 import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumDriverLocalServiceGroup;
+import io.appium.java_client.service.local.AppiumDriverLocalServicePool;
 import io.appium.java_client.service.local.AppiumServiceBuilder;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.Response;
 
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -101,6 +110,32 @@ public class AndroidDriver<RequiredElementType extends WebElement> extends Appiu
         this.setElementConverter(new JsonToAndroidElementConverter(this));
     }
 
+    public AndroidDriver(AppiumDriverLocalServicePool servicePool, Capabilities desiredCapabilities) {
+        super(servicePool, substituteMobilePlatform(desiredCapabilities,
+                ANDROID_PLATFORM));
+        this.setElementConverter(new JsonToAndroidElementConverter(this));
+    }
+
+    public AndroidDriver(AppiumDriverLocalServicePool servicePool, HttpClient.Factory httpClientFactory,
+                         Capabilities desiredCapabilities) {
+        super(servicePool, httpClientFactory, substituteMobilePlatform(desiredCapabilities,
+                ANDROID_PLATFORM));
+        this.setElementConverter(new JsonToAndroidElementConverter(this));
+    }
+
+    public AndroidDriver(AppiumDriverLocalServiceGroup serviceGroup, Capabilities desiredCapabilities) {
+        super(serviceGroup, substituteMobilePlatform(desiredCapabilities,
+                ANDROID_PLATFORM));
+        this.setElementConverter(new JsonToAndroidElementConverter(this));
+    }
+
+    public AndroidDriver(AppiumDriverLocalServiceGroup serviceGroup, HttpClient.Factory httpClientFactory,
+                         Capabilities desiredCapabilities) {
+        super(serviceGroup, httpClientFactory, substituteMobilePlatform(desiredCapabilities,
+                ANDROID_PLATFORM));
+        this.setElementConverter(new JsonToAndroidElementConverter(this));
+    }
+
     public AndroidDriver(AppiumServiceBuilder builder, Capabilities desiredCapabilities) {
         super(builder, substituteMobilePlatform(desiredCapabilities,
                 ANDROID_PLATFORM));
@@ -256,6 +291,43 @@ public class AndroidDriver<RequiredElementType extends WebElement> extends Appiu
         execute(PUSH_FILE, getCommandImmutableMap(parameters, values));
     }
 
+    /**
+     * @see PushesFiles#pushFile(String, Path)
+     */
+    @Override
+    public void pushFile(String remotePath, Path file) {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            pushFile(remotePath, inputStream, Files.size(file));
+        } catch (IOException e) {
+            throw new WebDriverException(e);
+        }
+    }
+
+    /**
+     * @see PushesFiles#pushFile(String, InputStream)
+     */
+    @Override
+    public void pushFile(String remotePath, InputStream inputStream) {
+        pushFile(remotePath, inputStream, -1);
+    }
+
+    //a negative length means that the length is unknown
+    private void pushFile(String remotePath, InputStream inputStream, long length) {
+        StreamingFileTransfer transfer = getFileTransfer();
+        if (transfer != null) {
+            transfer.push(getSessionId(), PUSH_FILE, PUSH_FILE_URL, ImmutableMap.of(PATH, remotePath),
+                    DATA_PARAM, inputStream, length);
+            return;
+        }
+        //the content is sent by the usual command as a base64 string
+        try {
+            execute(PUSH_FILE, ImmutableMap.of(PATH, remotePath,
+                    DATA_PARAM, DatatypeConverter.printBase64Binary(ByteStreams.toByteArray(inputStream))));
+        } catch (IOException e) {
+            throw new WebDriverException(e);
+        }
+    }
+
     /**
      * @param appPackage
      *            The package containing the activity. [Required]
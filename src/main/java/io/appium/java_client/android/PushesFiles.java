@@ -18,6 +18,9 @@ package io.appium.java_client.android;
 
 import io.appium.java_client.InteractsWithFiles;
 
+import java.io.InputStream;
+import java.nio.file.Path;
+
 public interface PushesFiles extends InteractsWithFiles {
 
     /**
@@ -30,4 +33,28 @@ public interface PushesFiles extends InteractsWithFiles {
      */
     void pushFile(String remotePath, byte[] base64Data);
 
+    /**
+     * Save the content of the local file as a file on the remote mobile device.
+     * The content is base64 encoded while it is being sent, so the whole file
+     * is never kept in memory.
+     *
+     * @param remotePath
+     *            Path to file to write data to on remote device
+     * @param file
+     *            is the local file to send
+     */
+    void pushFile(String remotePath, Path file);
+
+    /**
+     * Save the content of the stream as a file on the remote mobile device.
+     * The content is base64 encoded while it is being sent, so the whole stream
+     * is never kept in memory.
+     *
+     * @param remotePath
+     *            Path to file to write data to on remote device
+     * @param inputStream
+     *            is the content to send. It is not closed after the pushing.
+     */
+    void pushFile(String remotePath, InputStream inputStream);
+
 }
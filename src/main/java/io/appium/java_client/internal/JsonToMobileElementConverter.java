@@ -21,12 +21,14 @@ import io.appium.java_client.MobileElement;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.internal.JsonToWebElementConverter;
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 
 /**
@@ -35,12 +37,63 @@ import com.google.common.collect.Maps;
  */
 public abstract class JsonToMobileElementConverter extends JsonToWebElementConverter {
     protected AppiumDriver<?> driver;
+    //elements by their ids. It is NULL when elements are not interned.
+    //Values are weak so elements which are not used anymore can be collected
+    private volatile ConcurrentMap<String, MobileElement> internedElements;
 
     public JsonToMobileElementConverter(AppiumDriver<?> driver) {
         super(driver);
         this.driver = driver;
     }
 
+    /**
+     * @param isInterning is the flag which signalizes that the same element instance
+     *                    should be returned for the same element id. Elements are interned
+     *                    until the session is finished
+     */
+    public void setInterning(boolean isInterning) {
+        if (!isInterning) {
+            internedElements = null;
+            return;
+        }
+
+        if (internedElements == null) {
+            internedElements = new MapMaker().weakValues().makeMap();
+        }
+    }
+
+    public boolean isInterning() {
+        return internedElements != null;
+    }
+
+    /**
+     * Forgets all interned elements
+     */
+    public void clearInternedElements() {
+        Map<String, MobileElement> interned = internedElements;
+        if (interned != null) {
+            interned.clear();
+        }
+    }
+
+    private MobileElement getMobileElement(String id) {
+        ConcurrentMap<String, MobileElement> interned = internedElements;
+        MobileElement element;
+        if (interned != null && (element = interned.get(id)) != null) {
+            return element;
+        }
+
+        element = newMobileElement();
+        element.setId(id);
+        element.setFileDetector(driver.getFileDetector());
+
+        if (interned == null) {
+            return element;
+        }
+        MobileElement alreadyInterned = interned.putIfAbsent(id, element);
+        return alreadyInterned != null ? alreadyInterned : element;
+    }
+
     public Object apply(Object result) {
         if (result instanceof Collection<?>) {
             Collection<?> results = (Collection<?>) result;
@@ -50,12 +103,15 @@ public abstract class JsonToMobileElementConverter extends JsonToWebElementConve
         if (result instanceof Map<?, ?>) {
             Map<?, ?> resultAsMap = (Map<?, ?>) result;
             if (resultAsMap.containsKey("ELEMENT")) {
-                MobileElement element = newMobileElement();
-                element.setId(String.valueOf(resultAsMap.get("ELEMENT")));
-                element.setFileDetector(driver.getFileDetector());
-                return element;
+                return getMobileElement(String.valueOf(resultAsMap.get("ELEMENT")));
             } else {
-                return Maps.transformValues(resultAsMap, this);
+                //values are converted eagerly. A lazy view would convert
+                //them again each time when they are read
+                Map<Object, Object> converted = Maps.newLinkedHashMap();
+                for (Map.Entry<?, ?> entry : resultAsMap.entrySet()) {
+                    converted.put(entry.getKey(), apply(entry.getValue()));
+                }
+                return converted;
             }
         }
 
@@ -0,0 +1,239 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.internal;
+
+import com.google.common.collect.ImmutableMap;
+import io.appium.java_client.FindsByAccessibilityId;
+import io.appium.java_client.FindsByAndroidUIAutomator;
+import io.appium.java_client.FindsByIosUIAutomation;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.FindsByClassName;
+import org.openqa.selenium.internal.FindsByCssSelector;
+import org.openqa.selenium.internal.FindsById;
+import org.openqa.selenium.internal.FindsByLinkText;
+import org.openqa.selenium.internal.FindsByName;
+import org.openqa.selenium.internal.FindsByTagName;
+import org.openqa.selenium.internal.FindsByXPath;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts a {@link By} to the list of (using, value) pairs which can be sent to the server
+ * without the searching. It pretends to be a search context, so the given {@link By} reports
+ * strategies it would use. A {@link By} which searches inside found elements (e.g. chained ones)
+ * can't be converted.
+ */
+public final class SelectorRecorder implements SearchContext, WrapsDriver, FindsById, FindsByClassName,
+        FindsByCssSelector, FindsByLinkText, FindsByName, FindsByTagName, FindsByXPath,
+        FindsByAccessibilityId<WebElement>, FindsByAndroidUIAutomator<WebElement>,
+        FindsByIosUIAutomation<WebElement> {
+
+    public static final String USING = "using";
+    public static final String VALUE = "value";
+
+    private static class NotRecordableException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    //it is returned instead of found elements. Any attempt to use it means that
+    //the By can't be converted
+    private static final WebElement PLACEHOLDER = (WebElement) Proxy.newProxyInstance(
+            SelectorRecorder.class.getClassLoader(), new Class<?>[] {WebElement.class}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if (method.getDeclaringClass().equals(Object.class)) {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return "Placeholder of a found element";
+                        }
+                    }
+                    throw new NotRecordableException();
+                }
+            });
+
+    private final WebDriver driver;
+    private final List<Map<String, String>> selectors = new ArrayList<>();
+
+    private SelectorRecorder(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * @param driver is the driver which would perform the searching
+     * @param by is the selector to convert
+     * @return the list of maps with {@link #USING} and {@link #VALUE} keys.
+     *         Elements found by them in the given order are the same as the given {@link By} finds.
+     *         NULL is returned if the {@link By} can't be converted.
+     */
+    public static List<Map<String, String>> record(WebDriver driver, By by) {
+        SelectorRecorder recorder = new SelectorRecorder(driver);
+        try {
+            by.findElements(recorder);
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        if (recorder.selectors.isEmpty()) {
+            return null;
+        }
+        return recorder.selectors;
+    }
+
+    private List<WebElement> record(String using, String value) {
+        selectors.add(ImmutableMap.of(USING, using, VALUE, value));
+        List<WebElement> result = new ArrayList<>();
+        result.add(PLACEHOLDER);
+        return result;
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return by.findElements(this);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsById(String using) {
+        return record("id", using);
+    }
+
+    @Override
+    public WebElement findElementById(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByClassName(String using) {
+        return record("class name", using);
+    }
+
+    @Override
+    public WebElement findElementByClassName(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByCssSelector(String using) {
+        return record("css selector", using);
+    }
+
+    @Override
+    public WebElement findElementByCssSelector(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByLinkText(String using) {
+        return record("link text", using);
+    }
+
+    @Override
+    public WebElement findElementByLinkText(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByPartialLinkText(String using) {
+        return record("partial link text", using);
+    }
+
+    @Override
+    public WebElement findElementByPartialLinkText(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByName(String using) {
+        return record("name", using);
+    }
+
+    @Override
+    public WebElement findElementByName(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByTagName(String using) {
+        return record("tag name", using);
+    }
+
+    @Override
+    public WebElement findElementByTagName(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByXPath(String using) {
+        return record("xpath", using);
+    }
+
+    @Override
+    public WebElement findElementByXPath(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByAccessibilityId(String using) {
+        return record("accessibility id", using);
+    }
+
+    @Override
+    public WebElement findElementByAccessibilityId(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByAndroidUIAutomator(String using) {
+        return record("-android uiautomator", using);
+    }
+
+    @Override
+    public WebElement findElementByAndroidUIAutomator(String using) {
+        throw new NotRecordableException();
+    }
+
+    @Override
+    public List<WebElement> findElementsByIosUIAutomation(String using) {
+        return record("-ios uiautomation", using);
+    }
+
+    @Override
+    public WebElement findElementByIosUIAutomation(String using) {
+        throw new NotRecordableException();
+    }
+}
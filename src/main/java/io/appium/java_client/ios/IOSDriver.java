@@ -26,6 +26,8 @@ import io.appium.java_client.ios.internal.JsonToIOSElementConverter;
 import io.appium.java_client.remote.MobilePlatform;
 
 import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumDriverLocalServiceGroup;
+import io.appium.java_client.service.local.AppiumDriverLocalServicePool;
 import io.appium.java_client.service.local.AppiumServiceBuilder;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriverException;
@@ -76,6 +78,32 @@ FindsByIosUIAutomation<RequiredElementType>{
         this.setElementConverter(new JsonToIOSElementConverter(this));
     }
 
+    public IOSDriver(AppiumDriverLocalServicePool servicePool, Capabilities desiredCapabilities) {
+        super(servicePool, substituteMobilePlatform(desiredCapabilities,
+                IOS_PLATFORM));
+        this.setElementConverter(new JsonToIOSElementConverter(this));
+    }
+
+    public IOSDriver(AppiumDriverLocalServicePool servicePool, HttpClient.Factory httpClientFactory,
+                     Capabilities desiredCapabilities) {
+        super(servicePool, httpClientFactory, substituteMobilePlatform(desiredCapabilities,
+                IOS_PLATFORM));
+        this.setElementConverter(new JsonToIOSElementConverter(this));
+    }
+
+    public IOSDriver(AppiumDriverLocalServiceGroup serviceGroup, Capabilities desiredCapabilities) {
+        super(serviceGroup, substituteMobilePlatform(desiredCapabilities,
+                IOS_PLATFORM));
+        this.setElementConverter(new JsonToIOSElementConverter(this));
+    }
+
+    public IOSDriver(AppiumDriverLocalServiceGroup serviceGroup, HttpClient.Factory httpClientFactory,
+                     Capabilities desiredCapabilities) {
+        super(serviceGroup, httpClientFactory, substituteMobilePlatform(desiredCapabilities,
+                IOS_PLATFORM));
+        this.setElementConverter(new JsonToIOSElementConverter(this));
+    }
+
     public IOSDriver(AppiumServiceBuilder builder, Capabilities desiredCapabilities) {
         super(builder, substituteMobilePlatform(desiredCapabilities,
                 IOS_PLATFORM));
@@ -20,8 +20,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import io.appium.java_client.pagefactory.locator.CacheableLocator;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.pagefactory.locator.RefreshableLocator;
 import org.openqa.selenium.*;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
 import org.openqa.selenium.support.ui.FluentWait;
 import com.google.common.base.Function;
 
@@ -29,7 +31,13 @@ import static io.appium.java_client.pagefactory.ThrowableUtil.extractReadableExc
 import static io.appium.java_client.pagefactory.ThrowableUtil.isInvalidSelectorRootCause;
 import static io.appium.java_client.pagefactory.ThrowableUtil.isStaleElementReferenceException;
 
-class AppiumElementLocator implements CacheableLocator {
+/**
+ * A page object may be used by several threads: cached elements and snapshots are read and written
+ * under the lock of the locator, and each lookup has its own waiting function, so failures of
+ * concurrent lookups are not mixed up. Lookups themselves are not serialized, so a slow lookup
+ * doesn't block the threads which only read the cache.
+ */
+class AppiumElementLocator implements RefreshableLocator {
 
     // This function waits for not empty element list using all defined by
     private static class WaitingFunction implements
@@ -83,12 +91,15 @@ class AppiumElementLocator implements CacheableLocator {
 
     private final SearchContext searchContext;
     final boolean shouldCache;
+    final boolean shouldPollOnly;
+    final boolean isOptimistic;
     final By by;
     private WebElement cachedElement;
     private List<WebElement> cachedElementList;
+    private long cachedElementListTime;
     final TimeOutDuration timeOutDuration;
+    final TimeOutDuration snapshotTimeToLive;
     final WebDriver originalWebDriver;
-    private final WaitingFunction waitingFunction;
 
     /**
      * Creates a new mobile element locator. It instantiates {@link WebElement}
@@ -98,37 +109,68 @@ class AppiumElementLocator implements CacheableLocator {
      *            The context to use when finding the element
      * @param by a By locator strategy
      * @param shouldCache is the flag that signalizes that elements which are found once should be cached
+     * @param shouldPollOnly is the flag that signalizes that the implicit wait of the driver shouldn't be changed.
+     *                       Elements are waited for by client-side polling only.
+     * @param isOptimistic is the flag that signalizes that the found element should be reused until it
+     *                     becomes stale
      * @param duration is a POJO which contains timeout parameters
+     * @param snapshotTimeToLive is a POJO which contains the time to live of a snapshot of found elements.
+     *                           NULL means that found element lists are not kept as snapshots.
      * @param originalWebDriver
      */
-    public AppiumElementLocator(SearchContext searchContext, By by, boolean shouldCache, TimeOutDuration duration, WebDriver originalWebDriver) {
+    public AppiumElementLocator(SearchContext searchContext, By by, boolean shouldCache, boolean shouldPollOnly,
+                                boolean isOptimistic, TimeOutDuration duration, TimeOutDuration snapshotTimeToLive,
+                                WebDriver originalWebDriver) {
         this.searchContext = searchContext;
         this.shouldCache = shouldCache;
+        this.shouldPollOnly = shouldPollOnly;
+        this.isOptimistic = isOptimistic;
         this.timeOutDuration = duration;
+        this.snapshotTimeToLive = snapshotTimeToLive;
         this.by = by;
         this.originalWebDriver = originalWebDriver;
-        waitingFunction = new WaitingFunction(this.searchContext);
     }
 
     private void changeImplicitlyWaitTimeOut(long newTimeOut,
                                              TimeUnit newTimeUnit) {
-        originalWebDriver.manage().timeouts().implicitlyWait(newTimeOut, newTimeUnit);
+        changeImplicitlyWaitTimeOut(originalWebDriver, newTimeOut, newTimeUnit);
     }
 
-    // This method waits for not empty element list using all defined by
-    private List<WebElement> waitFor() {
-        // When we use complex By strategies (like ChainedBy or ByAll)
-        // there are some problems (StaleElementReferenceException, implicitly
-        // wait time out
-        // for each chain By section, etc)
+    //AppiumDriver sends the changed implicit wait only when it is needed
+    static void changeImplicitlyWaitTimeOut(WebDriver driver, long newTimeOut, TimeUnit newTimeUnit) {
+        if (driver instanceof AppiumDriver) {
+            ((AppiumDriver<?>) driver).deferImplicitlyWait(newTimeOut, newTimeUnit);
+            return;
+        }
+        driver.manage().timeouts().implicitlyWait(newTimeOut, newTimeUnit);
+    }
+
+    private List<WebElement> poll(WaitingFunction waitingFunction) {
         try {
-            changeImplicitlyWaitTimeOut(0, TimeUnit.SECONDS);
             FluentWait<By> wait = new FluentWait<>(by);
             wait.withTimeout(timeOutDuration.getTime(),
                     timeOutDuration.getTimeUnit());
             return wait.until(waitingFunction);
         } catch (TimeoutException e) {
             return new ArrayList<>();
+        }
+    }
+
+    // This method waits for not empty element list using all defined by
+    private List<WebElement> waitFor(WaitingFunction waitingFunction) {
+        if (shouldPollOnly) {
+            return poll(waitingFunction);
+        }
+
+        // When we use complex By strategies (like ChainedBy or ByAll)
+        // there are some problems (StaleElementReferenceException, implicitly
+        // wait time out
+        // for each chain By section, etc)
+        // AppiumDriver sends the changed implicit wait only when it is needed,
+        // so the server keeps zero while locators are used one after another
+        try {
+            changeImplicitlyWaitTimeOut(0, TimeUnit.SECONDS);
+            return poll(waitingFunction);
         } finally {
             changeImplicitlyWaitTimeOut(timeOutDuration.getTime(),
                     timeOutDuration.getTimeUnit());
@@ -139,10 +181,13 @@ class AppiumElementLocator implements CacheableLocator {
      * Find the element.
      */
     public WebElement findElement() {
-        if (cachedElement != null && shouldCache) {
-            return cachedElement;
+        synchronized (this) {
+            if (cachedElement != null && (shouldCache || isOptimistic)) {
+                return cachedElement;
+            }
         }
-        List<WebElement> result = waitFor();
+        WaitingFunction waitingFunction = new WaitingFunction(searchContext);
+        List<WebElement> result = waitFor(waitingFunction);
         if (result.size() == 0) {
             String message = "Can't locate an element by this strategy: "
                     + by.toString();
@@ -151,8 +196,10 @@ class AppiumElementLocator implements CacheableLocator {
             }
             throw new NoSuchElementException(message);
         }
-        if (shouldCache) {
-            cachedElement = result.get(0);
+        if (shouldCache || isOptimistic) {
+            synchronized (this) {
+                cachedElement = result.get(0);
+            }
         }
         return result.get(0);
     }
@@ -161,18 +208,87 @@ class AppiumElementLocator implements CacheableLocator {
      * Find the element list.
      */
     public List<WebElement> findElements() {
-        if (cachedElementList != null && shouldCache) {
-            return cachedElementList;
+        synchronized (this) {
+            if (cachedElementList != null && (shouldCache || isSnapshotActual())) {
+                return cachedElementList;
+            }
         }
-        List<WebElement> result = waitFor();
-        if (shouldCache) {
-            cachedElementList = result;
+        List<WebElement> result = waitFor(new WaitingFunction(searchContext));
+        //an empty snapshot is kept too, so the next calls don't wait for elements again until it expires
+        if (shouldCache || isLookUpSnapshot()) {
+            synchronized (this) {
+                cachedElementList = result;
+                cachedElementListTime = System.currentTimeMillis();
+            }
         }
         return result;
     }
 
+    private boolean isSnapshotActual() {
+        if (!isLookUpSnapshot()) {
+            return false;
+        }
+        long timeToLive = TimeUnit.MILLISECONDS.convert(snapshotTimeToLive.getTime(),
+                snapshotTimeToLive.getTimeUnit());
+        return System.currentTimeMillis() - cachedElementListTime < timeToLive;
+    }
+
     @Override
     public boolean isLookUpCached() {
         return shouldCache;
     }
+
+    /**
+     * @return true if found element lists are kept as snapshots.
+     * See {@link SnapshotLookup}
+     */
+    boolean isLookUpSnapshot() {
+        return snapshotTimeToLive != null;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        cachedElement = null;
+        cachedElementList = null;
+    }
+
+    @Override
+    public boolean isStaleLookUpRetried() {
+        return isOptimistic;
+    }
+
+    /**
+     * @return true if elements which are found once are reused. Only such lookups
+     * may be found in advance. See {@link #prefetch(List)}
+     */
+    boolean isPrefetchable() {
+        return shouldCache || isOptimistic || isLookUpSnapshot();
+    }
+
+    SearchContext getSearchContext() {
+        return searchContext;
+    }
+
+    /**
+     * Takes elements which have been found in advance by the same selector.
+     * They are served instead of a new lookup just like previously found ones.
+     *
+     * @param found elements found by the {@link By} of this locator
+     */
+    synchronized void prefetch(List<WebElement> found) {
+        if (found.isEmpty()) {
+            return;
+        }
+        if (shouldCache || isOptimistic) {
+            cachedElement = found.get(0);
+        }
+        if (shouldCache || isLookUpSnapshot()) {
+            cachedElementList = found;
+            cachedElementListTime = System.currentTimeMillis();
+        }
+    }
+
+    static boolean isSnapshotLocator(ElementLocator locator) {
+        return locator instanceof AppiumElementLocator && ((AppiumElementLocator) locator).isLookUpSnapshot();
+    }
 }
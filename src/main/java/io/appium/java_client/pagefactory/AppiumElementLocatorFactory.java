@@ -16,8 +16,22 @@
 
 package io.appium.java_client.pagefactory;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import io.appium.java_client.FindsByMultipleSelectors;
 
 import io.appium.java_client.pagefactory.bys.builder.AppiumByBuilder;
 import io.appium.java_client.pagefactory.locator.CacheableElementLocatorFactory;
@@ -25,21 +39,44 @@ import io.appium.java_client.pagefactory.locator.CacheableLocator;
 import org.openqa.selenium.By;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 
 class AppiumElementLocatorFactory implements CacheableElementLocatorFactory {
+    //By-strategies and lookup settings are read from annotations once per element, builder,
+    //platform and automation. Page objects which are initialized again reuse them.
+    //Classes which declare elements are weak keys, so classes which are not used anymore are not kept.
+    //Other parts of a key are names because fields and builders refer to their classes
+    private static final LoadingCache<Class<?>, ConcurrentMap<DefinitionKey, LocatorDefinition>> DEFINITIONS =
+            CacheBuilder.newBuilder().weakKeys().build(
+                    new CacheLoader<Class<?>, ConcurrentMap<DefinitionKey, LocatorDefinition>>() {
+                        @Override
+                        public ConcurrentMap<DefinitionKey, LocatorDefinition> load(Class<?> declaringClass) {
+                            return new ConcurrentHashMap<>();
+                        }
+                    });
+
     private final SearchContext searchContext;
     private final TimeOutDuration timeOutDuration;
     private final WebDriver originalWebDriver;
     private final AppiumByBuilder builder;
+    private final String platform;
+    private final String automation;
+    //locators which may be resolved in advance. See AppiumFieldDecorator#prefetchLookups().
+    //Locators of page objects which are not used anymore are not kept here
+    private final Set<AppiumElementLocator> prefetchableLocators =
+            Collections.newSetFromMap(new WeakHashMap<AppiumElementLocator, Boolean>());
 
     public AppiumElementLocatorFactory(SearchContext searchContext,
                                        TimeOutDuration timeOutDuration,
                                        WebDriver originalWebDriver,
-                                       AppiumByBuilder builder) {
+                                       AppiumByBuilder builder,
+                                       String platform, String automation) {
         this.searchContext = searchContext;
         this.originalWebDriver = originalWebDriver;
         this.timeOutDuration = timeOutDuration;
         this.builder = builder;
+        this.platform = platform;
+        this.automation = automation;
     }
 
     public CacheableLocator createLocator(Field field) {
@@ -48,21 +85,175 @@ class AppiumElementLocatorFactory implements CacheableElementLocatorFactory {
 
     @Override
     public CacheableLocator createLocator(AnnotatedElement annotatedElement) {
-        TimeOutDuration customDuration;
-        if (annotatedElement.isAnnotationPresent(WithTimeout.class)) {
-            WithTimeout withTimeout = annotatedElement.getAnnotation(WithTimeout.class);
-            customDuration = new TimeOutDuration(withTimeout.time(), withTimeout.unit());
+        LocatorDefinition definition = getDefinition(annotatedElement);
+        if (definition.by == null) {
+            return null;
+        }
+
+        TimeOutDuration customDuration = timeOutDuration;
+        if (definition.timeOutUnit != null) {
+            customDuration = new TimeOutDuration(definition.timeOut, definition.timeOutUnit);
+        }
+
+        TimeOutDuration snapshotTimeToLive = null;
+        if (definition.snapshotTimeToLiveUnit != null) {
+            snapshotTimeToLive = new TimeOutDuration(definition.snapshotTimeToLive,
+                    definition.snapshotTimeToLiveUnit);
+        }
+
+        AppiumElementLocator locator = new AppiumElementLocator(searchContext, definition.by,
+                definition.isLookupCached, definition.isPolling, definition.isOptimistic, customDuration,
+                snapshotTimeToLive, originalWebDriver);
+        if (locator.isPrefetchable()) {
+            synchronized (prefetchableLocators) {
+                prefetchableLocators.add(locator);
+            }
+        }
+        return locator;
+    }
+
+    private LocatorDefinition getDefinition(AnnotatedElement annotatedElement) {
+        ConcurrentMap<DefinitionKey, LocatorDefinition> definitions = null;
+        DefinitionKey key = null;
+        if (annotatedElement instanceof Field) {
+            definitions = DEFINITIONS.getUnchecked(((Field) annotatedElement).getDeclaringClass());
+            key = new DefinitionKey(((Field) annotatedElement).getName(), builder.getClass(), platform, automation);
+        } else if (annotatedElement instanceof Class) {
+            definitions = DEFINITIONS.getUnchecked((Class<?>) annotatedElement);
+            key = new DefinitionKey(null, builder.getClass(), platform, automation);
+        }
+
+        LocatorDefinition definition = definitions == null ? null : definitions.get(key);
+        if (definition != null) {
+            return definition;
+        }
+
+        //the builder keeps the element which is being read, so fields are read one by one.
+        //It happens only once per element, other calls get the cached definition
+        synchronized (builder) {
+            builder.setAnnotated(annotatedElement);
+            definition = new LocatorDefinition(annotatedElement, builder.buildBy(), builder.isLookupCached());
+        }
+        if (definitions == null) {
+            return definition;
+        }
+        LocatorDefinition existing = definitions.putIfAbsent(key, definition);
+        return existing != null ? existing : definition;
+    }
+
+    /**
+     * Finds elements of locators which reuse found elements and which have been created
+     * since the previous call. If the search context finds elements by several selectors
+     * at once then it is done by one request.
+     */
+    void prefetch() {
+        List<AppiumElementLocator> locators;
+        synchronized (prefetchableLocators) {
+            locators = new ArrayList<>(prefetchableLocators);
+            prefetchableLocators.clear();
+        }
+        if (locators.isEmpty() || !(searchContext instanceof FindsByMultipleSelectors)) {
+            return;
+        }
+
+        List<By> selectors = new ArrayList<>();
+        for (AppiumElementLocator locator: locators) {
+            selectors.add(locator.by);
+        }
+
+        List<? extends List<? extends WebElement>> found;
+        //the same as AppiumElementLocator does: prefetched elements are not waited for
+        AppiumElementLocator.changeImplicitlyWaitTimeOut(originalWebDriver, 0, TimeUnit.SECONDS);
+        try {
+            found = findElementsBySelectors(selectors);
+        } finally {
+            AppiumElementLocator.changeImplicitlyWaitTimeOut(originalWebDriver, timeOutDuration.getTime(),
+                    timeOutDuration.getTimeUnit());
         }
-        else {
-            customDuration = timeOutDuration;
+        for (int i = 0; i < locators.size(); i++) {
+            locators.get(i).prefetch(new ArrayList<WebElement>(found.get(i)));
         }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<? extends List<? extends WebElement>> findElementsBySelectors(List<By> selectors) {
+        return ((FindsByMultipleSelectors<WebElement>) searchContext).findElementsBySelectors(selectors);
+    }
+
+    // annotations like @PollingLookup may be declared by a field or by the class which declares the field
+    private static <T extends Annotation> T getAnnotation(AnnotatedElement annotatedElement,
+                                                          Class<T> annotation) {
+        T result = annotatedElement.getAnnotation(annotation);
+        if (result != null || !Field.class.isAssignableFrom(annotatedElement.getClass())) {
+            return result;
+        }
+
+        return ((Field) annotatedElement).getDeclaringClass().getAnnotation(annotation);
+    }
+
+    /**
+     * The By-strategy and lookup settings of an annotated element. Time outs are kept as values
+     * because {@link TimeOutDuration} is mutable and it is created for each locator.
+     */
+    private static final class LocatorDefinition {
+        private final By by;
+        private final boolean isLookupCached;
+        private final boolean isPolling;
+        private final boolean isOptimistic;
+        private final long timeOut;
+        private final TimeUnit timeOutUnit;
+        private final long snapshotTimeToLive;
+        private final TimeUnit snapshotTimeToLiveUnit;
 
-        builder.setAnnotated(annotatedElement);
-        By by = builder.buildBy();
-        if (by != null)
-            return new AppiumElementLocator(searchContext, by, builder.isLookupCached(), customDuration, originalWebDriver);
-        return null;
+        private LocatorDefinition(AnnotatedElement annotatedElement, By by, boolean isLookupCached) {
+            this.by = by;
+            this.isLookupCached = isLookupCached;
+            this.isPolling = getAnnotation(annotatedElement, PollingLookup.class) != null;
+            this.isOptimistic = getAnnotation(annotatedElement, OptimisticLookup.class) != null;
+
+            WithTimeout withTimeout = annotatedElement.getAnnotation(WithTimeout.class);
+            this.timeOut = withTimeout != null ? withTimeout.time() : 0;
+            this.timeOutUnit = withTimeout != null ? withTimeout.unit() : null;
+
+            SnapshotLookup snapshotLookup = getAnnotation(annotatedElement, SnapshotLookup.class);
+            this.snapshotTimeToLive = snapshotLookup != null ? snapshotLookup.ttl() : 0;
+            this.snapshotTimeToLiveUnit = snapshotLookup != null ? snapshotLookup.unit() : null;
+        }
     }
 
+    //the key of a definition among definitions of the same declaring class
+    private static final class DefinitionKey {
+        //NULL means the declaring class itself
+        private final String fieldName;
+        private final String builderClass;
+        private final String platform;
+        private final String automation;
+
+        private DefinitionKey(String fieldName, Class<?> builderClass,
+                              String platform, String automation) {
+            this.fieldName = String.valueOf(fieldName);
+            this.builderClass = builderClass.getName();
+            this.platform = String.valueOf(platform);
+            this.automation = String.valueOf(automation);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof DefinitionKey)) {
+                return false;
+            }
+            DefinitionKey key = (DefinitionKey) other;
+            return fieldName.equals(key.fieldName) && builderClass.equals(key.builderClass)
+                    && platform.equals(key.platform) && automation.equals(key.automation);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = fieldName.hashCode();
+            result = 31 * result + builderClass.hashCode();
+            result = 31 * result + platform.hashCode();
+            return 31 * result + automation.hashCode();
+        }
+    }
 
 }
@@ -16,6 +16,8 @@
 
 package io.appium.java_client.pagefactory;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import io.appium.java_client.MobileElement;
 import io.appium.java_client.TouchableElement;
 import io.appium.java_client.android.AndroidDriver;
@@ -32,6 +34,7 @@ import java.util.concurrent.TimeUnit;
 
 import io.appium.java_client.pagefactory.bys.ContentType;
 import io.appium.java_client.pagefactory.locator.CacheableLocator;
+import net.sf.cglib.proxy.MethodInterceptor;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -55,6 +58,14 @@ import static io.appium.java_client.pagefactory.utils.WebDriverUnpackUtility.unp
  * Please pay attention: fields of {@link WebElement}, {@link RemoteWebElement},
  * {@link MobileElement}, {@link AndroidElement} and {@link IOSElement} are allowed 
  * to use with this decorator
+ *
+ * An instance is thread-safe. It may be shared by threads which initialize
+ * page objects concurrently, e.g. tasks of a fork-join pool. Fields of one page object
+ * are decorated one by one by the calling thread. Nested widgets are created and
+ * initialized by the thread which uses a widget first, once even if several threads
+ * use it at the same time.
+ *
+ * Fields may be decorated lazily. See {@link #AppiumFieldDecorator(SearchContext, TimeOutDuration, boolean)}
  */
 public class AppiumFieldDecorator implements FieldDecorator{
 
@@ -81,12 +92,17 @@ public class AppiumFieldDecorator implements FieldDecorator{
                 }
             };
 
+    //lists of elements/widgets can be refreshed explicitly
+    private final static Class<?>[] LIST_PROXY_INTERFACES = new Class<?>[] {RefreshesLookup.class};
+
     private final WebDriver originalDriver;
     private final DefaultFieldDecorator defaultElementFieldDecoracor;
+    private final AppiumElementLocatorFactory elementLocatorFactory;
     private final AppiumElementLocatorFactory widgetLocatorFactory;
     private final String platform;
     private final String automation;
     private final TimeOutDuration timeOutDuration;
+    private final boolean isDecorationLazy;
 
     public static long DEFAULT_IMPLICITLY_WAIT_TIMEOUT = 1;
     public static TimeUnit DEFAULT_TIMEUNIT = TimeUnit.SECONDS;
@@ -96,14 +112,29 @@ public class AppiumFieldDecorator implements FieldDecorator{
     }
 
     public AppiumFieldDecorator(SearchContext context, TimeOutDuration timeOutDuration) {
+        this(context, timeOutDuration, false);
+    }
+
+    /**
+     * @param context is the search context which finds elements
+     * @param timeOutDuration is the default time out of element lookups
+     * @param isDecorationLazy whether fields get placeholder proxies. Locators and By-strategies of such fields
+     *                         are created when a proxy is invoked first time, so pages with a lot of fields
+     *                         are initialized faster and fields which are not used cost less memory.
+     *                         Errors of annotations are thrown by the first invocation then. Elements
+     *                         of lazily decorated fields are prefetched by {@link #prefetchLookups()} only
+     *                         when the field has been used already.
+     */
+    public AppiumFieldDecorator(SearchContext context, TimeOutDuration timeOutDuration, boolean isDecorationLazy) {
         this.originalDriver = unpackWebDriverFromSearchContext(context);
         platform = getPlatform(originalDriver);
         automation = getAutomation(originalDriver);
         this.timeOutDuration = timeOutDuration;
+        this.isDecorationLazy = isDecorationLazy;
 
-        defaultElementFieldDecoracor = new DefaultFieldDecorator(
-                new AppiumElementLocatorFactory(context, timeOutDuration, originalDriver,
-                        new DefaultElementByBuilder(platform, automation))) {
+        elementLocatorFactory = new AppiumElementLocatorFactory(context, timeOutDuration, originalDriver,
+                new DefaultElementByBuilder(platform, automation), platform, automation);
+        defaultElementFieldDecoracor = new DefaultFieldDecorator(elementLocatorFactory) {
             @Override
             protected WebElement proxyForLocator(ClassLoader ignored, ElementLocator locator) {
                 return proxyForAnElement(locator);
@@ -112,47 +143,53 @@ public class AppiumFieldDecorator implements FieldDecorator{
             @Override
             @SuppressWarnings("unchecked")
             protected List<WebElement> proxyForListLocator(ClassLoader ignored, ElementLocator locator)  {
-                ElementListInterceptor elementInterceptor = new ElementListInterceptor(locator);
-                return  getEnhancedProxy(ArrayList.class,
-                        elementInterceptor);
+                ElementListInterceptor elementInterceptor = new ElementListInterceptor(locator, originalDriver,
+                        getTypeForProxy());
+                return  getEnhancedProxy(ArrayList.class, LIST_PROXY_INTERFACES, new Class<?>[] {},
+                        new Object[] {}, elementInterceptor);
             }
 
             @Override
             protected boolean isDecoratableList(Field field) {
-                if (!List.class.isAssignableFrom(field.getType())) {
-                    return false;
-                }
-
-                Type genericType = field.getGenericType();
-                if (!(genericType instanceof ParameterizedType)) {
-                    return false;
-                }
-
-                Type listType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
-
-                boolean result = false;
-                for (Class<? extends WebElement> webElementClass:
-                        availableElementClasses) {
-                    if (!webElementClass.equals(listType)) {
-                        continue;
-                    }
-                    result = true;
-                    break;
-                }
-                return result;
+                return isAListOfElements(field);
             }
         };
 
         widgetLocatorFactory = new AppiumElementLocatorFactory(context, timeOutDuration, originalDriver,
-                new WidgetByBuilder(platform, automation));
+                new WidgetByBuilder(platform, automation), platform, automation);
     }
 
     public AppiumFieldDecorator(SearchContext context) {
         this(context, DEFAULT_IMPLICITLY_WAIT_TIMEOUT, DEFAULT_TIMEUNIT);
     }
 
+    private static boolean isAListOfElements(Field field) {
+        if (!List.class.isAssignableFrom(field.getType())) {
+            return false;
+        }
+
+        Type genericType = field.getGenericType();
+        if (!(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+
+        Type listType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+
+        boolean result = false;
+        for (Class<? extends WebElement> webElementClass:
+                availableElementClasses) {
+            if (!webElementClass.equals(listType)) {
+                continue;
+            }
+            result = true;
+            break;
+        }
+        return result;
+    }
+
     public Object decorate(ClassLoader ignored, Field field) {
-        Object result = defaultElementFieldDecoracor.decorate(ignored, field);
+        Object result = isDecorationLazy ? decorateElementLazily(field) :
+                defaultElementFieldDecoracor.decorate(ignored, field);
         if (result != null) {
             return result;
         }
@@ -160,6 +197,48 @@ public class AppiumFieldDecorator implements FieldDecorator{
         return decorateWidget(field);
     }
 
+    /**
+     * Finds elements of all fields decorated by this instance which reuse found elements
+     * ({@literal @}CacheLookup, {@link SnapshotLookup}, {@link OptimisticLookup}) and which have been
+     * created since the previous call. It is done only when the driver implements
+     * {@link io.appium.java_client.FindsByMultipleSelectors}. The server may find all of them by one request,
+     * otherwise there is one request per field.
+     * Fields whose elements are not found are looked up as usual later.
+     */
+    public void prefetchLookups() {
+        elementLocatorFactory.prefetch();
+        widgetLocatorFactory.prefetch();
+    }
+
+    private static Supplier<CacheableLocator> lazyLocator(final AppiumElementLocatorFactory locatorFactory,
+                                                          final Field field) {
+        return Suppliers.memoize(new Supplier<CacheableLocator>() {
+            @Override
+            public CacheableLocator get() {
+                return locatorFactory.createLocator(field);
+            }
+        });
+    }
+
+    private Object decorateElementLazily(final Field field) {
+        if (WebElement.class.isAssignableFrom(field.getType())) {
+            return lazyProxyForAnElement(lazyLocator(elementLocatorFactory, field));
+        }
+
+        if (!isAListOfElements(field)) {
+            return null;
+        }
+
+        return getEnhancedProxy(ArrayList.class, LIST_PROXY_INTERFACES, new Class<?>[] {}, new Object[] {},
+                new LazyInterceptor(new Supplier<MethodInterceptor>() {
+                    @Override
+                    public MethodInterceptor get() {
+                        return new ElementListInterceptor(elementLocatorFactory.createLocator(field), originalDriver,
+                                getTypeForProxy());
+                    }
+                }));
+    }
+
     @SuppressWarnings("unchecked")
     private Object decorateWidget(Field field) {
         Class<?> type = field.getType();
@@ -192,12 +271,16 @@ public class AppiumFieldDecorator implements FieldDecorator{
             widgetType = (Class<? extends Widget>) field.getType();
         }
 
+        if (isDecorationLazy) {
+            return decorateWidgetLazily(field, widgetType, isAlist);
+        }
+
         CacheableLocator locator = widgetLocatorFactory.createLocator(field);
         Map<ContentType, Constructor<? extends Widget>> map =
                 OverrideWidgetReader.read(widgetType, field, platform, automation);
 
         if (isAlist) {
-            return getEnhancedProxy(ArrayList.class,
+            return getEnhancedProxy(ArrayList.class, LIST_PROXY_INTERFACES, new Class<?>[] {}, new Object[] {},
                     new WidgetListInterceptor(locator, originalDriver, map, widgetType, timeOutDuration));
         }
 
@@ -207,6 +290,34 @@ public class AppiumFieldDecorator implements FieldDecorator{
                         timeOutDuration));
     }
 
+    private Object decorateWidgetLazily(final Field field, final Class<? extends Widget> widgetType,
+                                        boolean isAlist) {
+        //the widget and the element which is passed to its constructor use the same locator
+        final Supplier<CacheableLocator> locator = lazyLocator(widgetLocatorFactory, field);
+
+        if (isAlist) {
+            return getEnhancedProxy(ArrayList.class, LIST_PROXY_INTERFACES, new Class<?>[] {}, new Object[] {},
+                    new LazyInterceptor(new Supplier<MethodInterceptor>() {
+                        @Override
+                        public MethodInterceptor get() {
+                            return new WidgetListInterceptor(locator.get(), originalDriver,
+                                    OverrideWidgetReader.read(widgetType, field, platform, automation),
+                                    widgetType, timeOutDuration);
+                        }
+                    }));
+        }
+
+        Constructor<? extends Widget> constructor = WidgetConstructorUtil.findConvenientConstructor(widgetType);
+        return getEnhancedProxy(widgetType, new Class[] {constructor.getParameterTypes()[0]},
+                new Object[] {lazyProxyForAnElement(locator)}, new LazyInterceptor(new Supplier<MethodInterceptor>() {
+                    @Override
+                    public MethodInterceptor get() {
+                        return new WidgetInterceptor(locator.get(), originalDriver, null,
+                                OverrideWidgetReader.read(widgetType, field, platform, automation), timeOutDuration);
+                    }
+                }));
+    }
+
     private Class<?> getTypeForProxy() {
         Class<? extends SearchContext> driverClass = originalDriver.getClass();
         Iterable<Map.Entry<Class<? extends SearchContext>, Class<? extends WebElement>>> rules = elementRuleMap.entrySet();
@@ -224,4 +335,13 @@ public class AppiumFieldDecorator implements FieldDecorator{
         ElementInterceptor elementInterceptor = new ElementInterceptor(locator, originalDriver);
         return (WebElement) getEnhancedProxy(getTypeForProxy(), elementInterceptor);
     }
+
+    private WebElement lazyProxyForAnElement(final Supplier<CacheableLocator> locator)  {
+        return (WebElement) getEnhancedProxy(getTypeForProxy(), new LazyInterceptor(new Supplier<MethodInterceptor>() {
+            @Override
+            public MethodInterceptor get() {
+                return new ElementInterceptor(locator.get(), originalDriver);
+            }
+        }));
+    }
 }
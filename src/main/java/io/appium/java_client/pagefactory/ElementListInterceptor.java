@@ -19,11 +19,15 @@ package io.appium.java_client.pagefactory;
 import io.appium.java_client.MobileElement;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 import io.appium.java_client.pagefactory.interceptors.InterceptorOfAListOfElements;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.pagefactory.ElementLocator;
 
+import static io.appium.java_client.pagefactory.utils.ProxyFactory.getEnhancedProxy;
+
 /**
  *
  * Intercepts requests to the list of {@link MobileElement}
@@ -31,14 +35,40 @@ import org.openqa.selenium.support.pagefactory.ElementLocator;
  */
 class ElementListInterceptor extends InterceptorOfAListOfElements{
 
-	ElementListInterceptor(ElementLocator locator){
+	private final WebDriver driver;
+	private final Class<?> elementProxyType;
+	//proxies of snapshot elements. Each proxy locates the element by its index.
+	//They are guarded by this interceptor because the decorated list may be shared by threads
+	private final List<WebElement> snapshotProxies = new ArrayList<>();
+
+	ElementListInterceptor(ElementLocator locator, WebDriver driver, Class<?> elementProxyType){
 		super(locator);
+		this.driver = driver;
+		this.elementProxyType = elementProxyType;
+	}
+
+	private synchronized List<WebElement> getSnapshotProxies(List<WebElement> elements) {
+		while (snapshotProxies.size() > elements.size()) {
+			snapshotProxies.remove(snapshotProxies.size() - 1);
+		}
+
+		while (snapshotProxies.size() < elements.size()) {
+			ElementInterceptor elementInterceptor = new ElementInterceptor(
+					new SnapshotElementLocator((AppiumElementLocator) locator, snapshotProxies.size()), driver);
+			snapshotProxies.add((WebElement) getEnhancedProxy(elementProxyType, elementInterceptor));
+		}
+		return new ArrayList<>(snapshotProxies);
 	}
 
 	@Override
 	protected Object getObject(List<WebElement> elements, Method method, Object[] args) throws Throwable {
+		List<WebElement> target = elements;
+		if (AppiumElementLocator.isSnapshotLocator(locator)) {
+			target = getSnapshotProxies(elements);
+		}
+
 		try {
-			return method.invoke(elements, args);
+			return method.invoke(target, args);
 		}
 		catch (Throwable t){
 			throw ThrowableUtil.extractReadableException(t);
@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.pagefactory;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+
+import java.lang.reflect.Method;
+
+/**
+ * Intercepts requests to a placeholder proxy of a lazily decorated field.
+ * The real interceptor, its locator and By-strategy are created by the first
+ * invocation and then all invocations are delegated to it.
+ */
+class LazyInterceptor implements MethodInterceptor {
+
+    private final Supplier<? extends MethodInterceptor> interceptor;
+
+    LazyInterceptor(Supplier<? extends MethodInterceptor> interceptor) {
+        this.interceptor = Suppliers.memoize(interceptor);
+    }
+
+    @Override
+    public Object intercept(Object obj, Method method, Object[] args,
+                            MethodProxy proxy) throws Throwable {
+        //methods like hashCode() or toString() of a placeholder don't need the real interceptor
+        if (Object.class.equals(method.getDeclaringClass())) {
+            return proxy.invokeSuper(obj, args);
+        }
+        return interceptor.get().intercept(obj, method, args, proxy);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.pagefactory;
+
+/**
+ * Lists which are created by {@link AppiumFieldDecorator} implement this interface.
+ * It allows to drop elements which are kept in memory (see {@link org.openqa.selenium.support.CacheLookup}
+ * and {@link SnapshotLookup}). They are going to be found again on the next access.
+ *
+ * Usage: ((RefreshesLookup) listField).refreshLookup();
+ */
+public interface RefreshesLookup {
+    void refreshLookup();
+}
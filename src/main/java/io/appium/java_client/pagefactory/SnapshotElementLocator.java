@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.pagefactory;
+
+import io.appium.java_client.pagefactory.locator.RefreshableLocator;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * It locates the element by its index in the snapshot which is taken by
+ * the list locator. See {@link SnapshotLookup}
+ */
+class SnapshotElementLocator implements RefreshableLocator {
+
+    private final AppiumElementLocator listLocator;
+    private final int index;
+
+    SnapshotElementLocator(AppiumElementLocator listLocator, int index) {
+        this.listLocator = listLocator;
+        this.index = index;
+    }
+
+    @Override
+    public WebElement findElement() {
+        List<WebElement> snapshot = listLocator.findElements();
+        if (index >= snapshot.size()) {
+            throw new NoSuchElementException("Can't locate an element #" + index + " of the list found by this strategy: "
+                    + listLocator.by.toString() + ". The actual list size is " + snapshot.size());
+        }
+        return snapshot.get(index);
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        List<WebElement> result = new ArrayList<>();
+        result.add(findElement());
+        return result;
+    }
+
+    @Override
+    public boolean isLookUpCached() {
+        return true;
+    }
+
+    @Override
+    public void refresh() {
+        listLocator.refresh();
+    }
+
+    @Override
+    public boolean isStaleLookUpRetried() {
+        return true;
+    }
+}
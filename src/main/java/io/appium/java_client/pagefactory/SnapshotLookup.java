@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.pagefactory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This annotation marks a list field (or all list fields of an annotated page object/widget class)
+ * which should be served from a snapshot. Elements are found on the first access and then
+ * size(), get(), iterator() etc. don't send any request to the server.
+ *
+ * The snapshot is taken again when
+ * - it is older than the defined time to live
+ * - some element of the list has thrown {@link org.openqa.selenium.StaleElementReferenceException}
+ * - it has been dropped explicitly by {@link RefreshesLookup#refreshLookup()}
+ *
+ * Empty lists are kept in a snapshot too, so an absent element is waited for once per snapshot.
+ * A snapshot which never expires should be dropped explicitly when elements are expected to appear.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.TYPE})
+public @interface SnapshotLookup {
+    /**
+     * @return time to live of a snapshot. A snapshot doesn't expire by default.
+     */
+    long ttl() default Long.MAX_VALUE;
+
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -20,7 +20,7 @@ import org.openqa.selenium.StaleElementReferenceException;
 
 import java.lang.reflect.InvocationTargetException;
 
-class ThrowableUtil {
+public class ThrowableUtil {
     private final static String INVALID_SELECTOR_PATTERN = "Invalid locator strategy:";
 
     static boolean isInvalidSelectorRootCause(Throwable e) {
@@ -35,7 +35,11 @@ class ThrowableUtil {
         return isInvalidSelectorRootCause(e.getCause());
     }
 
-    static boolean isStaleElementReferenceException(Throwable e) {
+    /**
+     * @param e is the thrown exception
+     * @return true if the exception or one of its causes is {@link StaleElementReferenceException}
+     */
+    public static boolean isStaleElementReferenceException(Throwable e) {
         if (e == null) {
             return false;
         }
@@ -48,7 +52,8 @@ class ThrowableUtil {
     }
 
     static Throwable extractReadableException(Throwable e) {
-        if (!RuntimeException.class.equals(e.getClass()) && !InvocationTargetException.class.equals(e.getClass())) {
+        if (!RuntimeException.class.equals(e.getClass()) && !InvocationTargetException.class.equals(e.getClass())
+                || e.getCause() == null) {
             return e;
         }
 
@@ -49,20 +49,30 @@ class WidgetInterceptor extends InterceptorOfASingleElement{
 
     @Override
     protected Object getObject(WebElement element, Method method, Object[] args) throws Throwable {
+        Widget widget = getWidget(element);
+        try {
+            return method.invoke(widget, args);
+        }
+        catch (Throwable t) {
+            throw ThrowableUtil.extractReadableException(t);
+        }
+    }
+
+    //the widget and its nested fields are created once even if threads invoke the proxy concurrently
+    private synchronized Widget getWidget(WebElement element) throws Exception {
         ContentType type = getCurrentContentType(element);
-        if (cachedElement == null || (locator !=null && !((CacheableLocator) locator).isLookUpCached()) ||
-                cachedInstances.size() == 0) {
+        //not cached lookups return a new element each time. Cached and optimistic
+        //lookups return the same element until it is refreshed
+        if (cachedElement != element || !cachedInstances.containsKey(type)) {
+            if (cachedElement != element) {
+                cachedInstances.clear();
+            }
             cachedElement = element;
             Widget widget = instantiationMap.get(type).newInstance(cachedElement);
             cachedInstances.put(type, widget);
             PageFactory.initElements(new AppiumFieldDecorator(widget, duration), widget);
         }
-        try {
-            return method.invoke(cachedInstances.get(type), args);
-        }
-        catch (Throwable t) {
-            throw ThrowableUtil.extractReadableException(t);
-        }
+        return cachedInstances.get(type);
     }
 
     public Object intercept(Object obj, Method method, Object[] args,
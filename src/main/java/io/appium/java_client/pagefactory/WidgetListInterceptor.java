@@ -32,6 +32,8 @@ import static io.appium.java_client.pagefactory.utils.WebDriverUnpackUtility.get
 class WidgetListInterceptor extends InterceptorOfAListOfElements{
 
     private final Map<ContentType, Constructor<? extends Widget>> instantiationMap;
+    //cached elements and widgets are guarded by this interceptor
+    //because the decorated list may be shared by threads
     private List<WebElement> cachedElements;
     private final List<Widget> cachedWidgets = new ArrayList<>();
     private final Class<? extends Widget> declaredType;
@@ -48,21 +50,47 @@ class WidgetListInterceptor extends InterceptorOfAListOfElements{
     }
 
 
-    @Override
-    protected Object getObject(List<WebElement> elements, Method method, Object[] args) throws Throwable {
-        if (cachedElements ==  null || (locator !=null && !((CacheableLocator) locator).isLookUpCached())) {
+    private Widget getWidgetProxy(WebElement element, CacheableLocator elementLocator) {
+        ContentType type = getCurrentContentType(element);
+        Class<?>[] params = new Class<?>[] {instantiationMap.get(type).getParameterTypes()[0]};
+        return ProxyFactory.getEnhancedProxy(declaredType, params, new Object[]{element},
+                new WidgetInterceptor(elementLocator, driver, element, instantiationMap, duration));
+    }
+
+    //widgets of a snapshot locate their elements by index so they are
+    //created only for new indexes
+    private void syncSnapshotWidgets(List<WebElement> elements) {
+        while (cachedWidgets.size() > elements.size()) {
+            cachedWidgets.remove(cachedWidgets.size() - 1);
+        }
+
+        while (cachedWidgets.size() < elements.size()) {
+            int index = cachedWidgets.size();
+            cachedWidgets.add(getWidgetProxy(elements.get(index),
+                    new SnapshotElementLocator((AppiumElementLocator) locator, index)));
+        }
+    }
+
+    private synchronized List<Widget> getWidgets(List<WebElement> elements) {
+        if (AppiumElementLocator.isSnapshotLocator(locator)) {
+            syncSnapshotWidgets(elements);
+        }
+        else if (cachedElements ==  null || !cachedElements.equals(elements) ||
+                (locator !=null && !((CacheableLocator) locator).isLookUpCached())) {
             cachedElements = elements;
             cachedWidgets.clear();
 
             for (WebElement element: cachedElements) {
-                ContentType type = getCurrentContentType(element);
-                Class<?>[] params = new Class<?>[] {instantiationMap.get(type).getParameterTypes()[0]};
-                cachedWidgets.add(ProxyFactory.getEnhancedProxy(declaredType, params, new Object[]{element},
-                        new WidgetInterceptor(null, driver, element, instantiationMap, duration)));
+                cachedWidgets.add(getWidgetProxy(element, null));
             }
         }
+        return new ArrayList<>(cachedWidgets);
+    }
+
+    @Override
+    protected Object getObject(List<WebElement> elements, Method method, Object[] args) throws Throwable {
         try {
-            return method.invoke(cachedWidgets, args);
+            return method.invoke(getWidgets(elements), args);
         }
         catch (Throwable t) {
             throw ThrowableUtil.extractReadableException(t);
@@ -15,6 +15,8 @@
  */
 package io.appium.java_client.pagefactory.interceptors;
 
+import io.appium.java_client.pagefactory.RefreshesLookup;
+import io.appium.java_client.pagefactory.locator.RefreshableLocator;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 import org.openqa.selenium.WebElement;
@@ -40,8 +42,15 @@ public abstract class InterceptorOfAListOfElements implements MethodInterceptor
             return proxy.invokeSuper(obj, args);
         }
 
-        ArrayList<WebElement> realElements = new ArrayList<WebElement>();
-        realElements.addAll(locator.findElements());
+        if (RefreshesLookup.class.equals(method.getDeclaringClass())) {
+            if (locator instanceof RefreshableLocator) {
+                ((RefreshableLocator) locator).refresh();
+            }
+            return null;
+        }
+
+        //the copy keeps lists cached by the locator safe from changes made by the invoked method
+        List<WebElement> realElements = new ArrayList<>(locator.findElements());
         return getObject(realElements, method, args);
     }
 }
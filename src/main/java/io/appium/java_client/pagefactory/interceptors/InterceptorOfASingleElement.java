@@ -15,6 +15,7 @@
  */
 package io.appium.java_client.pagefactory.interceptors;
 
+import io.appium.java_client.pagefactory.locator.RefreshableLocator;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 import org.openqa.selenium.WebDriver;
@@ -25,6 +26,8 @@ import org.openqa.selenium.support.pagefactory.ElementLocator;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import static io.appium.java_client.pagefactory.ThrowableUtil.isStaleElementReferenceException;
+
 
 public abstract class InterceptorOfASingleElement implements MethodInterceptor {
     protected final ElementLocator locator;
@@ -49,6 +52,17 @@ public abstract class InterceptorOfASingleElement implements MethodInterceptor {
         }
 
         WebElement realElement = locator.findElement();
-        return getObject(realElement, method, args);
+        try {
+            return getObject(realElement, method, args);
+        }
+        catch (Throwable t) {
+            if (!isStaleElementReferenceException(t) || !(locator instanceof RefreshableLocator) ||
+                    !((RefreshableLocator) locator).isStaleLookUpRetried()) {
+                throw t;
+            }
+            //the element is found again and the action is retried once
+            ((RefreshableLocator) locator).refresh();
+            return getObject(locator.findElement(), method, args);
+        }
     }
 }
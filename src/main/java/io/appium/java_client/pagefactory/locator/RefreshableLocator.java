@@ -0,0 +1,33 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.pagefactory.locator;
+
+/**
+ * This is the locator which is able to drop elements kept in memory.
+ */
+public interface RefreshableLocator extends CacheableLocator {
+
+    /**
+     * Drops elements which are kept in memory. They are going to be found again.
+     */
+    public void refresh();
+
+    /**
+     * @return true if an action should be retried once with the element found again
+     * when the found element has become stale
+     */
+    public boolean isStaleLookUpRetried();
+}
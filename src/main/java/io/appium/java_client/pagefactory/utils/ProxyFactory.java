@@ -17,15 +17,51 @@
 package io.appium.java_client.pagefactory.utils;
 
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
 import net.sf.cglib.proxy.Enhancer;
 import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.NoOp;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Original class is a super class of a 
- * proxy object here
+ * proxy object here.
+ * The proxy class of each combination of the super class and interfaces is created by
+ * {@link Enhancer} once. Then proxies are created by its constructors with callbacks which are
+ * registered by {@link Enhancer#registerCallbacks(Class, Callback[])}, so the
+ * proxy class is not looked up by {@link Enhancer} again.
  */
 public final class ProxyFactory {
 
+    //Classes are weak keys, so proxy classes don't keep class loaders which are not used anymore.
+    //Proxy classes are weakly referenced too because they refer to their super classes. They are
+    //defined by the class loader of the super class, so they live as long as the super class does
+    private static final LoadingCache<Class<?>, ConcurrentMap<String, WeakReference<Class<?>>>> PROXY_CLASSES =
+            CacheBuilder.newBuilder().weakKeys().build(
+                    new CacheLoader<Class<?>, ConcurrentMap<String, WeakReference<Class<?>>>>() {
+                        @Override
+                        public ConcurrentMap<String, WeakReference<Class<?>>> load(Class<?> requiredClazz) {
+                            return new ConcurrentHashMap<>();
+                        }
+                    });
+    //finalize() is not overridden by proxies. The JVM registers every instance of a class
+    //which overrides it in the finalizer queue, which makes proxies slow to create and to collect
+    private static final CallbackFilter FINALIZE_IS_NOT_INTERCEPTED = new CallbackFilter() {
+        @Override
+        public int accept(Method method) {
+            return "finalize".equals(method.getName()) && method.getParameterTypes().length == 0 ? 1 : 0;
+        }
+    };
+
     private ProxyFactory() {
         super();
     }
@@ -34,12 +70,57 @@ public final class ProxyFactory {
         return getEnhancedProxy(requiredClazz, new Class<?>[] {}, new Object[] {}, interceptor);
     }
 
-    @SuppressWarnings("unchecked")
-    public static <T> T getEnhancedProxy(Class<T> requiredClazz, Class[] params, Object[] values,
+    public static <T> T getEnhancedProxy(Class<T> requiredClazz, Class<?>[] params, Object[] values,
                                                         MethodInterceptor interceptor){
+        return getEnhancedProxy(requiredClazz, new Class<?>[] {}, params, values, interceptor);
+    }
+
+    /**
+     * @param requiredClazz is a class which should be extended by the proxy
+     * @param interfaces are interfaces which should be implemented by the proxy additionally
+     * @param params are parameter types of a constructor of the required class
+     * @param values are values which are passed to the constructor
+     * @param interceptor is an interceptor of method invocations
+     * @return the proxy object
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getEnhancedProxy(Class<T> requiredClazz, Class<?>[] interfaces, Class<?>[] params,
+                                         Object[] values, MethodInterceptor interceptor){
+        Class<?> proxyClass = getProxyClass(requiredClazz, interfaces);
+        //callbacks are taken by the constructor from a thread local
+        Enhancer.registerCallbacks(proxyClass, new Callback[] {interceptor, NoOp.INSTANCE});
+        try {
+            return (T) ReflectUtils.newInstance(proxyClass, params, values);
+        } finally {
+            Enhancer.registerCallbacks(proxyClass, null);
+        }
+    }
+
+    private static Class<?> getProxyClass(Class<?> requiredClazz, Class<?>[] interfaces) {
+        ConcurrentMap<String, WeakReference<Class<?>>> proxyClasses = PROXY_CLASSES.getUnchecked(requiredClazz);
+        String signature = getSignature(interfaces);
+        WeakReference<Class<?>> reference = proxyClasses.get(signature);
+        Class<?> proxyClass = reference == null ? null : reference.get();
+        if (proxyClass != null) {
+            return proxyClass;
+        }
+
         Enhancer enhancer = new Enhancer();
         enhancer.setSuperclass(requiredClazz);
-        enhancer.setCallback(interceptor);
-        return (T) enhancer.create(params, values);
+        enhancer.setInterfaces(interfaces);
+        enhancer.setCallbackTypes(new Class<?>[] {MethodInterceptor.class, NoOp.class});
+        enhancer.setCallbackFilter(FINALIZE_IS_NOT_INTERCEPTED);
+        proxyClass = enhancer.createClass();
+        proxyClasses.put(signature, new WeakReference<Class<?>>(proxyClass));
+        return proxyClass;
+    }
+
+    //names are used instead of classes, so the cache doesn't keep classes of other class loaders
+    private static String getSignature(Class<?>[] interfaces) {
+        StringBuilder signature = new StringBuilder();
+        for (Class<?> implemented: interfaces) {
+            signature.append(implemented.getName()).append(',');
+        }
+        return signature.toString();
     }
 }
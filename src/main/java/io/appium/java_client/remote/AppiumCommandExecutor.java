@@ -18,6 +18,13 @@ package io.appium.java_client.remote;
 
 
 import com.google.common.base.Throwables;
+import io.appium.java_client.remote.metrics.CommandMetrics;
+import io.appium.java_client.remote.metrics.CommandMetricsListener;
+import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumDriverLocalServiceGroup;
+import io.appium.java_client.service.local.AppiumDriverLocalServicePool;
+import io.appium.java_client.service.local.AppiumServiceProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.remote.*;
 import org.openqa.selenium.remote.http.HttpClient;
@@ -26,39 +33,176 @@ import org.openqa.selenium.remote.service.DriverService;
 import java.io.IOException;
 import java.net.ConnectException;
 import java.net.URL;
+import java.util.List;
 import java.util.Map;
-import org.openqa.selenium.remote.internal.ApacheHttpClient;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class AppiumCommandExecutor extends HttpCommandExecutor{
 
     private final DriverService service;
+    //the pool which has given the service. The service is returned to it on quit
+    private final AppiumServiceProvider serviceProvider;
+    //the session of the group's server. It is released on quit
+    private final AppiumDriverLocalServiceGroup.Lease groupLease;
+    private final MeasuringHttpClientFactory httpClientFactory;
+    private final CommandMetrics metrics = new CommandMetrics();
+    private final List<CommandMetricsListener> metricsListeners = new CopyOnWriteArrayList<>();
+
+    private AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands,
+                                  URL addressOfRemoteServer,
+                                  DriverService service,
+                                  AppiumServiceProvider serviceProvider,
+                                  AppiumDriverLocalServiceGroup.Lease groupLease,
+                                  MeasuringHttpClientFactory httpClientFactory) {
+        super(additionalCommands, addressOfRemoteServer, httpClientFactory);
+        this.service = service;
+        this.serviceProvider = serviceProvider;
+        this.groupLease = groupLease;
+        this.httpClientFactory = httpClientFactory;
+        metricsListeners.add(metrics);
+    }
 
     public AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands,
                                  URL addressOfRemoteServer, 
                                  HttpClient.Factory httpClientFactory) {
-        super(additionalCommands, addressOfRemoteServer, httpClientFactory);
-        service = null;
+        this(additionalCommands, addressOfRemoteServer, null, null, null,
+                new MeasuringHttpClientFactory(httpClientFactory));
     }
     
     public AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands, 
                                  DriverService service,
                                  HttpClient.Factory httpClientFactory) {
-        super(additionalCommands, service.getUrl(), httpClientFactory);
-        this.service = service;
+        this(additionalCommands, service.getUrl(), service, null, null,
+                new MeasuringHttpClientFactory(httpClientFactory));
+    }
+
+    private AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands,
+                                  AppiumServiceProvider serviceProvider,
+                                  AppiumDriverLocalService service,
+                                  HttpClient.Factory httpClientFactory) {
+        this(additionalCommands, service.getUrl(), service, serviceProvider, null,
+                new MeasuringHttpClientFactory(httpClientFactory));
+    }
+
+    private AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands,
+                                  AppiumDriverLocalServiceGroup.Lease groupLease,
+                                  HttpClient.Factory httpClientFactory) {
+        this(additionalCommands, groupLease.getService().getUrl(), groupLease.getService(), null, groupLease,
+                new MeasuringHttpClientFactory(httpClientFactory));
+    }
+
+    /**
+     * Leases a started server from the pool. The server is returned to the pool on quit.
+     */
+    public AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands,
+                                 AppiumDriverLocalServicePool servicePool,
+                                 HttpClient.Factory httpClientFactory) {
+        this(additionalCommands, servicePool, servicePool.lease(), httpClientFactory);
+    }
+
+    /**
+     * Leases the server chosen by the group. The lease is released on quit.
+     */
+    public AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands,
+                                 AppiumDriverLocalServiceGroup serviceGroup,
+                                 HttpClient.Factory httpClientFactory) {
+        this(additionalCommands, serviceGroup.lease(), httpClientFactory);
+        addMetricsListener(serviceGroup.getMetrics((AppiumDriverLocalService) service));
     }
     
     public AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands, 
                                  URL addressOfRemoteServer) {
-        this(additionalCommands, addressOfRemoteServer, new ApacheHttpClient.Factory());
+        this(additionalCommands, addressOfRemoteServer, PooledHttpClientFactory.getDefault());
     }
 
     public AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands, 
                                  DriverService service) {
-        this(additionalCommands, service, new ApacheHttpClient.Factory());
+        this(additionalCommands, service, PooledHttpClientFactory.getDefault());
+    }
+
+    public AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands,
+                                 AppiumDriverLocalServicePool servicePool) {
+        this(additionalCommands, servicePool, PooledHttpClientFactory.getDefault());
+    }
+
+    public AppiumCommandExecutor(Map<String, CommandInfo> additionalCommands,
+                                 AppiumDriverLocalServiceGroup serviceGroup) {
+        this(additionalCommands, serviceGroup, PooledHttpClientFactory.getDefault());
+    }
+
+    /**
+     * @return built-in metrics of executed commands. They can be exposed via JMX
+     * by {@link CommandMetrics#registerMBean(String)}
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param listener receives measurements of every executed command
+     */
+    public void addMetricsListener(CommandMetricsListener listener) {
+        metricsListeners.add(listener);
+    }
+
+    public void removeMetricsListener(CommandMetricsListener listener) {
+        metricsListeners.remove(listener);
+    }
+
+    /**
+     * @param errorHandler is used to throw an exception if the server has returned an error
+     * @return the helper which transfers files without keeping them in memory. Its commands are sent
+     * by the client of the same {@link PooledHttpClientFactory}, so they use the same connections,
+     * credentials and time outs. They are reported to metrics listeners of this executor.
+     * NULL is returned if this executor uses another factory. Files should be transferred by
+     * usual commands then.
+     */
+    public StreamingFileTransfer createFileTransfer(ErrorHandler errorHandler) {
+        CloseableHttpClient streamingClient = httpClientFactory.getStreamingClient(getAddressOfRemoteServer());
+        if (streamingClient == null) {
+            return null;
+        }
+        StreamingFileTransfer fileTransfer = new StreamingFileTransfer(getAddressOfRemoteServer(), errorHandler,
+                streamingClient);
+        fileTransfer.addMetricsListener(new CommandMetricsListener() {
+            @Override
+            public void onCommandExecuted(String commandName, long durationNanos, long requestBytes,
+                                          long responseBytes, boolean isFailed) {
+                notifyMetricsListeners(commandName, durationNanos, requestBytes, responseBytes, isFailed);
+            }
+        });
+        return fileTransfer;
     }
 
     @Override
     public Response execute(Command command) throws IOException, WebDriverException {
+        httpClientFactory.resetTransferredBytes();
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = executeCommand(command);
+            return response;
+        } finally {
+            long duration = System.nanoTime() - start;
+            boolean isFailed = response == null
+                    || (response.getStatus() != null && response.getStatus() != ErrorCodes.SUCCESS);
+            notifyMetricsListeners(command.getName(), duration, httpClientFactory.getRequestBytes(),
+                    httpClientFactory.getResponseBytes(), isFailed);
+        }
+    }
+
+    private void notifyMetricsListeners(String commandName, long durationNanos, long requestBytes,
+                                        long responseBytes, boolean isFailed) {
+        for (CommandMetricsListener listener: metricsListeners) {
+            try {
+                listener.onCommandExecuted(commandName, durationNanos, requestBytes, responseBytes, isFailed);
+            } catch (RuntimeException ignored) {
+                //a failed listener doesn't replace the result of the command and doesn't affect other listeners
+            }
+        }
+    }
+
+    private Response executeCommand(Command command) throws IOException, WebDriverException {
         if (DriverCommand.NEW_SESSION.equals(command.getName()) && service != null) {
             service.start();
         }
@@ -66,6 +210,10 @@ public class AppiumCommandExecutor extends HttpCommandExecutor{
         try {
             return super.execute(command);
         } catch (Throwable t) {
+            if (DriverCommand.NEW_SESSION.equals(command.getName())) {
+                //the driver is not created so the server won't be used anymore
+                releaseProvidedService();
+            }
             Throwable rootCause = Throwables.getRootCause(t);
             if (rootCause instanceof ConnectException &&
                     rootCause.getMessage().contains("Connection refused") && service != null){
@@ -79,9 +227,21 @@ public class AppiumCommandExecutor extends HttpCommandExecutor{
             throw new WebDriverException(t);
         } finally {
             if (DriverCommand.QUIT.equals(command.getName()) && service != null) {
-                service.stop();
+                if (serviceProvider != null || groupLease != null) {
+                    releaseProvidedService();
+                } else {
+                    service.stop();
+                }
             }
         }
     }
 
+    private void releaseProvidedService() {
+        if (groupLease != null) {
+            groupLease.release();
+        } else if (serviceProvider != null) {
+            serviceProvider.release((AppiumDriverLocalService) service);
+        }
+    }
+
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.remote;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Wraps clients of the given factory and counts bytes of request and response bodies
+ * which have been sent and received by the current thread.
+ */
+class MeasuringHttpClientFactory implements HttpClient.Factory {
+    private static final int REQUEST = 0;
+    private static final int RESPONSE = 1;
+
+    private final HttpClient.Factory factory;
+    private final ThreadLocal<long[]> transferredBytes = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+    };
+
+    MeasuringHttpClientFactory(HttpClient.Factory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public HttpClient createClient(URL url) {
+        final HttpClient client = factory.createClient(url);
+        return new HttpClient() {
+            @Override
+            public HttpResponse execute(HttpRequest request, boolean followRedirects) throws IOException {
+                long[] bytes = transferredBytes.get();
+                bytes[REQUEST] += getLength(request.getContent());
+                HttpResponse response = client.execute(request, followRedirects);
+                bytes[RESPONSE] += getLength(response.getContent());
+                return response;
+            }
+        };
+    }
+
+    /**
+     * @return the Apache client of the wrapped factory which sends requests with streamed bodies.
+     * NULL is returned if the wrapped factory is not {@link PooledHttpClientFactory},
+     * so settings of other factories are never bypassed.
+     */
+    CloseableHttpClient getStreamingClient(URL url) {
+        if (!(factory instanceof PooledHttpClientFactory)) {
+            return null;
+        }
+        return ((PooledHttpClientFactory) factory).getHttpClient(url);
+    }
+
+    private static long getLength(byte[] content) {
+        return content == null ? 0 : content.length;
+    }
+
+    void resetTransferredBytes() {
+        long[] bytes = transferredBytes.get();
+        bytes[REQUEST] = 0;
+        bytes[RESPONSE] = 0;
+    }
+
+    long getRequestBytes() {
+        return transferredBytes.get()[REQUEST];
+    }
+
+    long getResponseBytes() {
+        return transferredBytes.get()[RESPONSE];
+    }
+}
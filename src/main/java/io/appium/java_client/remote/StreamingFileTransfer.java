@@ -0,0 +1,418 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.remote;
+
+import com.google.common.base.Charsets;
+import io.appium.java_client.remote.metrics.CommandMetricsListener;
+import org.apache.commons.codec.binary.Base64InputStream;
+import org.apache.commons.codec.binary.Base64OutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.BeanToJsonConverter;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.ErrorHandler;
+import org.openqa.selenium.remote.JsonToBeanConverter;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PushbackReader;
+import java.io.SequenceInputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Executes commands which transfer files as base64 encoded strings.
+ * Unlike {@link AppiumCommandExecutor} it doesn't keep the whole response (request) body in memory.
+ * The base64 value is decoded (encoded) while the body is being read (written) so the memory
+ * consumption doesn't depend on the file size.
+ * Instances are created by {@link AppiumCommandExecutor#createFileTransfer(ErrorHandler)}, so
+ * requests are sent by the same pool of connections with the same credentials and time outs
+ * as other commands and they are measured like other commands.
+ */
+public class StreamingFileTransfer {
+
+    private static final String SESSION_ID_MASK = ":sessionId";
+    private static final String STATUS = "status";
+    private static final String VALUE = "value";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final URL remoteAddress;
+    private final ErrorHandler errorHandler;
+    private final CloseableHttpClient httpClient;
+    private final List<CommandMetricsListener> metricsListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param remoteAddress is the URL of the remote server
+     * @param errorHandler is used to throw an exception if the server has returned an error
+     * @param httpClient sends requests to the remote server
+     */
+    public StreamingFileTransfer(URL remoteAddress, ErrorHandler errorHandler, CloseableHttpClient httpClient) {
+        this.remoteAddress = checkNotNull(remoteAddress, "remoteAddress parameter is NULL!");
+        this.errorHandler = checkNotNull(errorHandler, "errorHandler parameter is NULL!");
+        this.httpClient = checkNotNull(httpClient, "httpClient parameter is NULL!");
+    }
+
+    /**
+     * @param listener receives measurements of every executed command
+     */
+    public void addMetricsListener(CommandMetricsListener listener) {
+        metricsListeners.add(checkNotNull(listener, "listener parameter is NULL!"));
+    }
+
+    private String getCommandAddress(SessionId sessionId, String commandUrl) {
+        String address = remoteAddress.toString();
+        if (address.endsWith("/")) {
+            address = address.substring(0, address.length() - 1);
+        }
+        return address + commandUrl.replace(SESSION_ID_MASK, String.valueOf(sessionId));
+    }
+
+    /**
+     * Sends the command and decodes the base64 string value of the response into the given stream.
+     *
+     * @param sessionId is the id of the current session
+     * @param commandName is the name of the command which is reported to metrics listeners
+     * @param commandUrl is the command URL template. E.g. /session/:sessionId/appium/device/pull_file
+     * @param parameters are parameters of the command
+     * @param outputStream is the stream which receives decoded bytes. It is not closed here.
+     */
+    public void pull(SessionId sessionId, String commandName, String commandUrl, Map<String, ?> parameters,
+                     OutputStream outputStream) {
+        checkNotNull(outputStream, "outputStream parameter is NULL!");
+        execute(sessionId, commandName, commandUrl, new StringEntity(new BeanToJsonConverter().convert(parameters),
+                ContentType.APPLICATION_JSON), outputStream);
+    }
+
+    /**
+     * Sends the command with the content of the given stream encoded as a base64 string parameter.
+     * The content is encoded while the request body is being written.
+     *
+     * @param sessionId is the id of the current session
+     * @param commandName is the name of the command which is reported to metrics listeners
+     * @param commandUrl is the command URL template. E.g. /session/:sessionId/appium/device/push_file
+     * @param parameters are other parameters of the command
+     * @param dataParameter is the name of the parameter which takes the base64 string
+     * @param inputStream is the content to send. It is not closed here.
+     * @param length is the count of bytes which are available from the stream.
+     *               A negative value means that the count is unknown.
+     */
+    public void push(SessionId sessionId, String commandName, String commandUrl, Map<String, ?> parameters,
+                     String dataParameter, InputStream inputStream, long length) {
+        checkNotNull(inputStream, "inputStream parameter is NULL!");
+        Map<String, Object> otherParameters = new LinkedHashMap<>(parameters);
+        otherParameters.remove(dataParameter);
+        String json = new BeanToJsonConverter().convert(otherParameters);
+
+        //{...,"data":"<base64>"}
+        String prefix = json.substring(0, json.lastIndexOf('}')).trim()
+                + (otherParameters.isEmpty() ? "" : ",")
+                + new BeanToJsonConverter().convert(dataParameter) + ":\"";
+        execute(sessionId, commandName, commandUrl, new Base64Entity(prefix.getBytes(Charsets.UTF_8), inputStream,
+                length), null);
+    }
+
+    private void execute(SessionId sessionId, String commandName, String commandUrl, HttpEntity requestEntity,
+                         OutputStream outputStream) {
+        HttpPost post = new HttpPost(getCommandAddress(sessionId, commandUrl));
+        CountingEntity countingEntity = new CountingEntity(requestEntity);
+        post.setEntity(countingEntity);
+
+        long start = System.nanoTime();
+        CountingInputStream responseContent = null;
+        boolean isFailed = true;
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                throw new WebDriverException("The response has no body. " + response.getStatusLine());
+            }
+
+            responseContent = new CountingInputStream(entity.getContent());
+            try (PushbackReader reader = new PushbackReader(new BufferedReader(
+                    new InputStreamReader(responseContent, Charsets.UTF_8), BUFFER_SIZE))) {
+                readResponse(reader, outputStream, response.getStatusLine().getStatusCode());
+            }
+            isFailed = false;
+        } catch (IOException e) {
+            throw new WebDriverException(e);
+        } finally {
+            long duration = System.nanoTime() - start;
+            long responseBytes = responseContent == null ? 0 : responseContent.getByteCount();
+            for (CommandMetricsListener listener: metricsListeners) {
+                try {
+                    listener.onCommandExecuted(commandName, duration, countingEntity.byteCount, responseBytes,
+                            isFailed);
+                } catch (RuntimeException ignored) {
+                    //a failed listener doesn't replace the result of the command and doesn't affect other listeners
+                }
+            }
+        }
+    }
+
+    //counts bytes of the request body while it is being written
+    private static class CountingEntity extends HttpEntityWrapper {
+        private long byteCount;
+
+        private CountingEntity(HttpEntity entity) {
+            super(entity);
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+            try {
+                super.writeTo(countingStream);
+            } finally {
+                byteCount += countingStream.getByteCount();
+            }
+        }
+    }
+
+    private void readResponse(PushbackReader reader, OutputStream outputStream,
+                              int httpStatus) throws IOException {
+        Integer status = null;
+        String rawValue = null;
+        boolean isValueDecoded = false;
+
+        expect(reader, '{');
+        int c = nextSignificant(reader);
+        while (c != '}') {
+            if (c != '"') {
+                throw unexpected(c);
+            }
+            String key = readRawString(reader);
+            expect(reader, ':');
+            c = nextSignificant(reader);
+
+            //the base64 value is decoded on the fly if the server hasn't reported an error yet
+            if (outputStream != null && VALUE.equals(key) && c == '"'
+                    && (status == null || status == ErrorCodes.SUCCESS)) {
+                decodeBase64String(reader, outputStream);
+                isValueDecoded = true;
+            } else {
+                String raw = readRawValue(reader, c);
+                if (STATUS.equals(key)) {
+                    status = Integer.valueOf(raw);
+                } else if (VALUE.equals(key)) {
+                    rawValue = raw;
+                }
+            }
+
+            c = nextSignificant(reader);
+            if (c == ',') {
+                c = nextSignificant(reader);
+            }
+        }
+
+        boolean isSuccessful = status == null ? httpStatus < 400 : status == ErrorCodes.SUCCESS;
+        if (isValueDecoded && isSuccessful) {
+            return;
+        }
+
+        Response response = new Response();
+        response.setStatus(isSuccessful ? ErrorCodes.SUCCESS :
+                (status == null ? ErrorCodes.UNHANDLED_ERROR : status));
+        response.setValue(rawValue == null ? null : new JsonToBeanConverter().convert(Object.class, rawValue));
+        errorHandler.throwIfResponseFailed(response, 0);
+
+        if (outputStream != null && rawValue != null && !"null".equals(rawValue)) {
+            throw new WebDriverException("The response value is not a base64 string: " + rawValue);
+        }
+    }
+
+    private static void decodeBase64String(PushbackReader reader, OutputStream outputStream) throws IOException {
+        OutputStream decoder = new Base64OutputStream(new CloseShieldOutputStream(outputStream), false);
+        byte[] chunk = new byte[BUFFER_SIZE];
+        int length = 0;
+        int c;
+        while ((c = read(reader)) != '"') {
+            if (c == '\\') {
+                c = read(reader);
+                if (c == 'u') {
+                    char[] hex = new char[] {(char) read(reader), (char) read(reader),
+                            (char) read(reader), (char) read(reader)};
+                    c = Integer.parseInt(new String(hex), 16);
+                } else if (c != '/') {
+                    //line breaks and other escaped characters are not base64 characters
+                    continue;
+                }
+            }
+
+            chunk[length++] = (byte) c;
+            if (length == chunk.length) {
+                decoder.write(chunk, 0, length);
+                length = 0;
+            }
+        }
+        decoder.write(chunk, 0, length);
+        decoder.close();
+    }
+
+    //the content is encoded while it is read, so the entity can be consumed once only
+    static class Base64Entity extends AbstractHttpEntity {
+        private static final byte[] SUFFIX = "\"}".getBytes(Charsets.UTF_8);
+
+        private final byte[] prefix;
+        private final InputStream inputStream;
+        private final long length;
+        private boolean isConsumed;
+
+        Base64Entity(byte[] prefix, InputStream inputStream, long length) {
+            this.prefix = prefix;
+            this.inputStream = inputStream;
+            this.length = length;
+            setContentType(ContentType.APPLICATION_JSON.toString());
+            setChunked(length < 0);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            if (length < 0) {
+                return -1;
+            }
+            return prefix.length + (length + 2) / 3 * 4 + SUFFIX.length;
+        }
+
+        @Override
+        public synchronized InputStream getContent() {
+            if (isConsumed) {
+                throw new IllegalStateException("The content is not repeatable and it has been consumed already");
+            }
+            isConsumed = true;
+            //line length 0 means that the encoded string is not split
+            return new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                    new ByteArrayInputStream(prefix),
+                    new Base64InputStream(inputStream, true, 0, null),
+                    new ByteArrayInputStream(SUFFIX))));
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            IOUtils.copyLarge(getContent(), outputStream, new byte[BUFFER_SIZE]);
+            outputStream.flush();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+    }
+
+    private static String readRawString(PushbackReader reader) throws IOException {
+        StringBuilder result = new StringBuilder();
+        int c;
+        while ((c = read(reader)) != '"') {
+            if (c == '\\') {
+                c = read(reader);
+            }
+            result.append((char) c);
+        }
+        return result.toString();
+    }
+
+    //reads the JSON value as it is
+    private static String readRawValue(PushbackReader reader, int first) throws IOException {
+        StringBuilder result = new StringBuilder();
+        int depth = 0;
+        boolean isInString = false;
+        int c = first;
+        while (true) {
+            if (isInString) {
+                if (c == '\\') {
+                    result.append((char) c);
+                    c = read(reader);
+                } else if (c == '"') {
+                    isInString = false;
+                }
+            } else if (c == '"') {
+                isInString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                if (depth == 0) {
+                    reader.unread(c);
+                    break;
+                }
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                reader.unread(c);
+                break;
+            }
+            result.append((char) c);
+
+            if (depth == 0 && !isInString && (c == '"' || c == '}' || c == ']') && result.length() > 1) {
+                break;
+            }
+            c = read(reader);
+        }
+        return result.toString().trim();
+    }
+
+    private static int read(PushbackReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            throw new IOException("Unexpected end of the response");
+        }
+        return c;
+    }
+
+    private static int nextSignificant(PushbackReader reader) throws IOException {
+        int c;
+        do {
+            c = read(reader);
+        } while (Character.isWhitespace(c));
+        return c;
+    }
+
+    private static void expect(PushbackReader reader, char expected) throws IOException {
+        int c = nextSignificant(reader);
+        if (c != expected) {
+            throw unexpected(c);
+        }
+    }
+
+    private static IOException unexpected(int c) {
+        return new IOException("Unexpected character in the response: " + (char) c);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.remote.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Built-in {@link CommandMetricsListener} which accumulates per-command counters and latency histograms.
+ * It may be registered as an MBean to be watched by JMX clients (e.g. jconsole).
+ */
+public class CommandMetrics implements CommandMetricsListener, CommandMetricsMBean {
+    private static final String DOMAIN = "io.appium.java_client";
+    private static final CommandStatistics EMPTY = new CommandStatistics();
+
+    private final ConcurrentMap<String, CommandStatistics> statistics = new ConcurrentHashMap<>();
+    private ObjectName registeredName;
+
+    @Override
+    public void onCommandExecuted(String commandName, long durationNanos, long requestBytes,
+                                  long responseBytes, boolean isFailed) {
+        CommandStatistics commandStatistics = statistics.get(commandName);
+        if (commandStatistics == null) {
+            CommandStatistics newStatistics = new CommandStatistics();
+            commandStatistics = statistics.putIfAbsent(commandName, newStatistics);
+            if (commandStatistics == null) {
+                commandStatistics = newStatistics;
+            }
+        }
+        commandStatistics.record(durationNanos, requestBytes, responseBytes, isFailed);
+    }
+
+    /**
+     * @return statistics of all executed commands by their names
+     */
+    public Map<String, CommandStatistics> getStatistics() {
+        return ImmutableMap.copyOf(new TreeMap<>(statistics));
+    }
+
+    /**
+     * @param commandName is the name of the command
+     * @return statistics of the command. They are empty if the command hasn't been executed.
+     */
+    public CommandStatistics getStatistics(String commandName) {
+        CommandStatistics result = statistics.get(commandName);
+        return result == null ? EMPTY : result;
+    }
+
+    @Override
+    public Set<String> getCommandNames() {
+        return ImmutableSortedSet.copyOf(statistics.keySet());
+    }
+
+    @Override
+    public long getTotalCount() {
+        long result = 0;
+        for (CommandStatistics commandStatistics: statistics.values()) {
+            result += commandStatistics.getCount();
+        }
+        return result;
+    }
+
+    @Override
+    public long getTotalErrorCount() {
+        long result = 0;
+        for (CommandStatistics commandStatistics: statistics.values()) {
+            result += commandStatistics.getErrorCount();
+        }
+        return result;
+    }
+
+    @Override
+    public String getSummary() {
+        StringBuilder result = new StringBuilder();
+        for (Map.Entry<String, CommandStatistics> entry: getStatistics().entrySet()) {
+            result.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return result.toString();
+    }
+
+    @Override
+    public long getCount(String commandName) {
+        return getStatistics(commandName).getCount();
+    }
+
+    @Override
+    public long getErrorCount(String commandName) {
+        return getStatistics(commandName).getErrorCount();
+    }
+
+    @Override
+    public long getRequestBytes(String commandName) {
+        return getStatistics(commandName).getRequestBytes();
+    }
+
+    @Override
+    public long getResponseBytes(String commandName) {
+        return getStatistics(commandName).getResponseBytes();
+    }
+
+    @Override
+    public long getLatencyP50Micros(String commandName) {
+        return getStatistics(commandName).getLatencyMicros(50);
+    }
+
+    @Override
+    public long getLatencyP99Micros(String commandName) {
+        return getStatistics(commandName).getLatencyMicros(99);
+    }
+
+    @Override
+    public long getMaxLatencyMicros(String commandName) {
+        return getStatistics(commandName).getMaxLatencyMicros();
+    }
+
+    @Override
+    public void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * Registers this instance in the platform MBean server as
+     * io.appium.java_client:type=CommandMetrics,name=&lt;the given name&gt;
+     *
+     * @param name is the name which distinguishes this instance from others. E.g. a session id
+     * @return the name of the registered MBean
+     */
+    public synchronized ObjectName registerMBean(String name) {
+        unregisterMBean();
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=CommandMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            registeredName = objectName;
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Command metrics can't be registered as an MBean", e);
+        }
+    }
+
+    /**
+     * Removes the MBean which has been registered by {@link #registerMBean(String)}.
+     * Nothing happens if it has not been registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(registeredName)) {
+                server.unregisterMBean(registeredName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Command metrics can't be unregistered", e);
+        } finally {
+            registeredName = null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.remote.metrics;
+
+/**
+ * Receives measurements of every command which is executed by
+ * {@link io.appium.java_client.remote.AppiumCommandExecutor}.
+ * It is invoked synchronously by the thread which has executed the command,
+ * so implementations should be fast and thread-safe.
+ */
+public interface CommandMetricsListener {
+
+    /**
+     * @param commandName is the name of the executed command. See {@link org.openqa.selenium.remote.DriverCommand}
+     *                    and {@link io.appium.java_client.MobileCommand}
+     * @param durationNanos is how long the command has been executed, in nanoseconds
+     * @param requestBytes is the size of the request body
+     * @param responseBytes is the size of the response body
+     * @param isFailed is true if the command has thrown an exception or the server has returned an error
+     */
+    void onCommandExecuted(String commandName, long durationNanos, long requestBytes,
+                           long responseBytes, boolean isFailed);
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.remote.metrics;
+
+import java.util.Set;
+
+/**
+ * JMX view of {@link CommandMetrics}. Latencies are measured in microseconds.
+ */
+public interface CommandMetricsMBean {
+
+    Set<String> getCommandNames();
+
+    long getTotalCount();
+
+    long getTotalErrorCount();
+
+    /**
+     * @return one line of statistics per command name
+     */
+    String getSummary();
+
+    long getCount(String commandName);
+
+    long getErrorCount(String commandName);
+
+    long getRequestBytes(String commandName);
+
+    long getResponseBytes(String commandName);
+
+    long getLatencyP50Micros(String commandName);
+
+    long getLatencyP99Micros(String commandName);
+
+    long getMaxLatencyMicros(String commandName);
+
+    void reset();
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.remote.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accumulated measurements of the command with the same name.
+ */
+public class CommandStatistics {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final LatencyHistogram latencyMicros = new LatencyHistogram();
+
+    void record(long durationNanos, long requestBytes, long responseBytes, boolean isFailed) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        count.incrementAndGet();
+        if (isFailed) {
+            errorCount.incrementAndGet();
+        }
+        this.requestBytes.addAndGet(requestBytes);
+        this.responseBytes.addAndGet(responseBytes);
+        totalMicros.addAndGet(micros);
+        latencyMicros.record(micros);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public long getRequestBytes() {
+        return requestBytes.get();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    public long getTotalMicros() {
+        return totalMicros.get();
+    }
+
+    /**
+     * @param percentile is a value from 0 to 100. E.g. 50 is the median, 99 is p99.
+     * @return latency in microseconds which is not exceeded by the given percentage of executions
+     */
+    public long getLatencyMicros(double percentile) {
+        return latencyMicros.getPercentile(percentile);
+    }
+
+    public long getMaxLatencyMicros() {
+        return latencyMicros.getMax();
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", errors=" + getErrorCount()
+                + ", requestBytes=" + getRequestBytes() + ", responseBytes=" + getResponseBytes()
+                + ", p50=" + getLatencyMicros(50) + "us, p99=" + getLatencyMicros(99)
+                + "us, max=" + getMaxLatencyMicros() + "us";
+    }
+}
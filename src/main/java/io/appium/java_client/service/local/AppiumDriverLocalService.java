@@ -18,9 +18,9 @@ package io.appium.java_client.service.local;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.net.UrlChecker;
-import org.openqa.selenium.os.CommandLine;
 import org.openqa.selenium.remote.service.DriverService;
 
 import java.io.File;
@@ -28,9 +28,25 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -45,17 +61,58 @@ public final class AppiumDriverLocalService extends DriverService {
     private final long startupTimeout;
     private final TimeUnit timeUnit;
     private final ReentrantLock lock = new ReentrantLock(true); //uses "fair" thread ordering policy
-    private final ListOutputStream stream = new ListOutputStream().add(System.out);
+    private final ListOutputStream stream = new ListOutputStream();
+    private final ServerLogOptions logOptions;
+    private final RollingFileOutputStream rollingFile;
+    private final Pattern readinessPattern;
+    private final PortRangeAllocator.PortBlock portBlock;
+    private final AtomicReference<AppiumServiceState> state = new AtomicReference<>(AppiumServiceState.STOPPED);
+    private final List<AppiumServiceStateListener> stateListeners = new CopyOnWriteArrayList<>();
+    private final List<ProcessResourceListener> resourceListeners = new CopyOnWriteArrayList<>();
 
+    //one daemon thread schedules health checks of all started services
+    private static final ScheduledExecutorService HEALTH_MONITOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "appium-service-health-monitor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    //checks of different services run concurrently, so a server which doesn't respond
+    //doesn't delay checks of other ones. Idle threads are stopped
+    private static final ExecutorService HEALTH_CHECKERS = Executors.newCachedThreadPool(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "appium-service-health-check");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    private static final long HEALTH_CHECK_PERIOD_MS = 2000;
+    private static final long HEALTH_CHECK_TIMEOUT_MS = 500;
 
+    //services which have been started and have not been stopped yet
+    private static final Set<AppiumDriverLocalService> RUNNING_SERVICES = Sets.newConcurrentHashSet();
+    private static final AtomicBoolean IS_SHUTDOWN_HOOK_ADDED = new AtomicBoolean();
 
-    private CommandLine process = null;
+    private volatile ServerProcess process = null;
+    private ScheduledFuture<?> healthCheck;
+    //a new check of this service is skipped while the previous one is running
+    private final AtomicBoolean isHealthBeingChecked = new AtomicBoolean();
+    private volatile ServerStartupTiming startupTiming;
+    private volatile ProcessResourceUsage resourceUsage;
 
     AppiumDriverLocalService(String ipAddress, File nodeJSExec, int nodeJSPort,
                              ImmutableList<String> nodeJSArgs,
                              ImmutableMap<String, String> nodeJSEnvironment,
                              long startupTimeout,
-                             TimeUnit timeUnit) throws IOException {
+                             TimeUnit timeUnit,
+                             ServerLogOptions logOptions,
+                             Pattern readinessPattern,
+                             PortRangeAllocator.PortBlock portBlock) throws IOException {
         super(nodeJSExec, nodeJSPort, nodeJSArgs, nodeJSEnvironment);
         this.ipAddress = ipAddress;
         this.nodeJSExec = nodeJSExec;
@@ -64,6 +121,19 @@ public final class AppiumDriverLocalService extends DriverService {
         this.nodeJSEnvironment = nodeJSEnvironment;
         this.startupTimeout = startupTimeout;
         this.timeUnit = timeUnit;
+        this.logOptions = logOptions;
+        this.readinessPattern = readinessPattern;
+        this.portBlock = portBlock;
+        if (logOptions.isConsoleOutput()) {
+            stream.add(System.out);
+        }
+        if (logOptions.getRollingFile() != null) {
+            rollingFile = new RollingFileOutputStream(logOptions.getRollingFile(),
+                    logOptions.getMaxFileSize(), logOptions.getMaxFiles());
+            stream.add(rollingFile);
+        } else {
+            rollingFile = null;
+        }
     }
 
     /**
@@ -79,28 +149,174 @@ public final class AppiumDriverLocalService extends DriverService {
         }
     }
 
+    /**
+     * It doesn't send requests to the server. The state is tracked by the background health monitor,
+     * so the result may be up to 2 seconds old.
+     * The liveness of the process is checked on every call.
+     *
+     * @return true if the server process is running and the server has responded to the last health check
+     */
     @Override
     public boolean isRunning() {
-        lock.lock();
-        try {
-            if (process == null) {
-                return false;
+        ServerProcess currentProcess = process;
+        if (currentProcess == null || state.get() != AppiumServiceState.RUNNING) {
+            return false;
+        }
+
+        if (!currentProcess.isRunning()) {
+            reportExit(currentProcess);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the state which has been detected by the last health check
+     */
+    public AppiumServiceState getState() {
+        return state.get();
+    }
+
+    /**
+     * @param listener is notified when the state of the service changes
+     */
+    public void addStateListener(AppiumServiceStateListener listener) {
+        checkNotNull(listener, "listener parameter is NULL!");
+        stateListeners.add(listener);
+    }
+
+    public void removeStateListener(AppiumServiceStateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    /**
+     * Reads resources which are used by the server process from /proc. It works on Linux only.
+     *
+     * @return the current sample. null is returned if the server is not running
+     * or the sample can't be taken on this platform.
+     */
+    public ProcessResourceUsage getResourceUsage() {
+        ServerProcess currentProcess = process;
+        if (currentProcess == null || currentProcess.getPid() < 0 || !ProcessResourceSampler.isSupported()) {
+            return null;
+        }
+        //the previous sample is used to calculate the CPU load
+        ProcessResourceUsage usage = ProcessResourceSampler.sample(currentProcess.getPid(), resourceUsage);
+        if (usage != null) {
+            resourceUsage = usage;
+        }
+        return usage;
+    }
+
+    /**
+     * @param listener receives samples of resources used by the server process. Samples are taken
+     *                 every 2 seconds while the server is running.
+     *                 See {@link #getResourceUsage()}
+     */
+    public void addResourceListener(ProcessResourceListener listener) {
+        checkNotNull(listener, "listener parameter is NULL!");
+        resourceListeners.add(listener);
+    }
+
+    public void removeResourceListener(ProcessResourceListener listener) {
+        resourceListeners.remove(listener);
+    }
+
+    //the state is changed only if the given process is still the current one
+    private void changeState(ServerProcess expectedProcess, AppiumServiceState newState) {
+        AppiumServiceState oldState;
+        synchronized (state) {
+            if (process != expectedProcess) {
+                return;
             }
+            oldState = state.getAndSet(newState);
+        }
+        notifyStateListeners(oldState, newState);
+    }
 
-            if (!process.isRunning()) {
-                return false;
+    //the exit of the process which has not started yet is reported by start()
+    private void reportExit(ServerProcess exitedProcess) {
+        AppiumServiceState oldState;
+        synchronized (state) {
+            oldState = state.get();
+            if (process != exitedProcess || oldState == AppiumServiceState.STOPPED) {
+                return;
             }
+            state.set(AppiumServiceState.CRASHED);
+        }
+        notifyStateListeners(oldState, AppiumServiceState.CRASHED);
+    }
 
-            try {
-                ping(500, TimeUnit.MILLISECONDS);
-                return true;
-            } catch (UrlChecker.TimeoutException e) {
-                return false;
+    private void notifyStateListeners(AppiumServiceState oldState, AppiumServiceState newState) {
+        if (oldState != newState) {
+            for (AppiumServiceStateListener listener: stateListeners) {
+                listener.onStateChanged(this, oldState, newState);
             }
-        } finally {
-            lock.unlock();
+        }
+    }
+
+    //the exit of the detached process is not reported as a crash
+    private ServerProcess detachProcess(long timeoutMs) {
+        ServerProcess detachedProcess;
+        AppiumServiceState oldState;
+        synchronized (state) {
+            detachedProcess = process;
+            process = null;
+            oldState = state.getAndSet(AppiumServiceState.STOPPED);
+        }
+        if (detachedProcess != null) {
+            if (timeoutMs < 0) {
+                detachedProcess.destroy();
+            } else {
+                detachedProcess.destroy(timeoutMs);
+            }
+        }
+        notifyStateListeners(oldState, AppiumServiceState.STOPPED);
+        return detachedProcess;
+    }
+
+    private void checkHealthAsynchronously() {
+        if (!isHealthBeingChecked.compareAndSet(false, true)) {
+            return;
+        }
+        HEALTH_CHECKERS.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    checkHealth();
+                } finally {
+                    isHealthBeingChecked.set(false);
+                }
+            }
+        });
+    }
+
+    private void checkHealth() {
+        ServerProcess currentProcess = process;
+        if (currentProcess == null) {
+            return;
+        }
+
+        if (!currentProcess.isRunning()) {
+            reportExit(currentProcess);
+            return;
         }
 
+        try {
+            ping(HEALTH_CHECK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            changeState(currentProcess, AppiumServiceState.RUNNING);
+        } catch (UrlChecker.TimeoutException e) {
+            changeState(currentProcess, AppiumServiceState.NOT_RESPONDING);
+        }
+
+        if (!resourceListeners.isEmpty()) {
+            ProcessResourceUsage usage = getResourceUsage();
+            if (usage != null) {
+                for (ProcessResourceListener listener: resourceListeners) {
+                    listener.onSample(this, usage);
+                }
+            }
+        }
     }
 
     private void ping(long time, TimeUnit timeUnit) throws UrlChecker.TimeoutException{
@@ -124,19 +340,58 @@ public final class AppiumDriverLocalService extends DriverService {
             if (isRunning()) {
                 return;
             }
+            //the previous process may be alive but not responding
+            stopProcess(-1);
+            if (portBlock != null && !portBlock.lock()) {
+                throw new AppiumServerHasNotBeenStartedLocallyException("The ports " + portBlock.getPort(0) + "-"
+                        + portBlock.getPort(portBlock.getSize() - 1) + " have been reserved by another process");
+            }
 
             try {
-                process = new CommandLine(this.nodeJSExec.getCanonicalPath(), nodeJSArgs.toArray(new String[]{}));
-                process.setEnvironmentVariables(nodeJSEnvironment);
-                process.copyOutputTo(stream);
-                process.executeAsync();
-                ping(startupTimeout, timeUnit);
+                List<String> command = new ArrayList<>();
+                command.add(this.nodeJSExec.getCanonicalPath());
+                command.addAll(nodeJSArgs);
+                long startedAt = System.nanoTime();
+                ReadinessWatcher readinessWatcher = readinessPattern == null ? null
+                        : new ReadinessWatcher(readinessPattern);
+                process = new ServerProcess(command, nodeJSEnvironment, stream, logOptions, readinessWatcher,
+                        new ServerProcess.ExitListener() {
+                            @Override
+                            public void onExit(ServerProcess exitedProcess) {
+                                reportExit(exitedProcess);
+                            }
+                        });
+                long spawnedAt = System.nanoTime();
+                long listeningAt = 0;
+                if (readinessWatcher != null && readinessWatcher.await(remainingTime(startedAt), TimeUnit.NANOSECONDS)) {
+                    listeningAt = readinessWatcher.getMatchedAt();
+                } else if (readinessWatcher != null && !readinessWatcher.isWaiting()) {
+                    //the output is closed, so the process has exited
+                    throw new IllegalStateException("The server process has exited before it started listening");
+                }
+                //the server is listening already, so the first request is supposed to succeed.
+                //Otherwise the status is polled until the time is out
+                ping(remainingTime(startedAt), TimeUnit.NANOSECONDS);
+                startupTiming = new ServerStartupTiming(startedAt, spawnedAt, process.getFirstOutputAt(),
+                        listeningAt, System.nanoTime());
+                changeState(process, AppiumServiceState.RUNNING);
+                RUNNING_SERVICES.add(this);
+                healthCheck = HEALTH_MONITOR.scheduleWithFixedDelay(new Runnable() {
+                    @Override
+                    public void run() {
+                        checkHealthAsynchronously();
+                    }
+                }, HEALTH_CHECK_PERIOD_MS, HEALTH_CHECK_PERIOD_MS, TimeUnit.MILLISECONDS);
             } catch (Throwable e) {
-                destroyProcess();
+                ServerProcess failedProcess = detachProcess(-1);
+                //the block is locked again by the next start
+                if (portBlock != null) {
+                    portBlock.close();
+                }
                 String msgTxt = "The local appium server has not been started. " +
                         "The given Node.js executable: " + this.nodeJSExec.getAbsolutePath() + " Arguments: " + nodeJSArgs.toString() + " " + "\n";
-                if (process != null) {
-                    String processStream = process.getStdOut();
+                if (failedProcess != null) {
+                    String processStream = failedProcess.getRecentOutput();
                     if (!StringUtils.isBlank(processStream))
                         msgTxt = msgTxt + "Process output: " + processStream + "\n";
                 }
@@ -149,6 +404,18 @@ public final class AppiumDriverLocalService extends DriverService {
         }
     }
 
+    private long remainingTime(long startedAt) {
+        return Math.max(timeUnit.toNanos(startupTimeout) - (System.nanoTime() - startedAt), 1);
+    }
+
+    /**
+     * @return the breakdown of the last successful start. null is returned if the server
+     * has not been started yet.
+     */
+    public ServerStartupTiming getStartupTiming() {
+        return startupTiming;
+    }
+
     /**
      * Stops this service is it is currently running. This method will attempt to block until the
      * server has been fully shutdown.
@@ -159,30 +426,74 @@ public final class AppiumDriverLocalService extends DriverService {
     public void stop() {
         lock.lock();
         try {
-            if (process != null) {
-                destroyProcess();
+            stopAndRelease(-1);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops this service within the given time. The server process is asked to exit and it is
+     * killed forcibly if it doesn't exit within the half of the time.
+     *
+     * @param timeout is the max time of stopping
+     * @param timeUnit is the unit of the timeout
+     * @return false if the service has not been stopped because it is being started or stopped
+     * by another thread for the whole time
+     */
+    public boolean stop(long timeout, TimeUnit timeUnit) {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        try {
+            if (!lock.tryLock(timeout, timeUnit)) {
+                return false;
             }
-            process = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            stopAndRelease(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 0));
+            return true;
         }
         finally {
             lock.unlock();
         }
     }
 
+    //a negative timeout means waiting for the graceful exit as long as it is needed
+    private void stopAndRelease(long timeoutMs) {
+        RUNNING_SERVICES.remove(this);
+        stopProcess(timeoutMs);
+        if (rollingFile != null) {
+            try {
+                rollingFile.close();
+            } catch (IOException ignored) {
+            }
+        }
+        if (portBlock != null) {
+            portBlock.close();
+        }
+    }
 
-    private void destroyProcess(){
-        if (process.isRunning()) {
-            process.destroy();
+    private void stopProcess(long timeoutMs) {
+        if (healthCheck != null) {
+            healthCheck.cancel(false);
+            healthCheck = null;
         }
+        detachProcess(timeoutMs);
     }
 
+
     /**
-     * @return String logs if the server has been run.
+     * @return String logs if the server has been run. Only the last 64 KB of the output are kept
+     * by default. See {@link ServerLogOptions#withRecentOutputCapacity(int)}.
      * null is returned otherwise.
      */
     public String getStdOut() {
-        if (process != null)
-            return process.getStdOut();
+        ServerProcess currentProcess = process;
+        if (currentProcess != null)
+            return currentProcess.getRecentOutput();
 
         return null;
     }
@@ -207,4 +518,77 @@ public final class AppiumDriverLocalService extends DriverService {
         return builder.build();
     }
 
+    /**
+     * Stops services concurrently. See {@link #stop(long, TimeUnit)}
+     *
+     * @param services are services to be stopped
+     * @param timeout is the max time of stopping of all services
+     * @param timeUnit is the unit of the timeout
+     * @return false if some services have not been stopped in time
+     */
+    public static boolean stopAll(Collection<AppiumDriverLocalService> services, final long timeout,
+                                  final TimeUnit timeUnit) {
+        if (services.isEmpty()) {
+            return true;
+        }
+
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        ExecutorService stoppers = Executors.newFixedThreadPool(services.size(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "appium-service-stopper");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (final AppiumDriverLocalService service: services) {
+                results.add(stoppers.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return service.stop(timeout, timeUnit);
+                    }
+                }));
+            }
+
+            boolean isStopped = true;
+            for (Future<Boolean> result: results) {
+                try {
+                    if (!result.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                        isStopped = false;
+                    }
+                } catch (ExecutionException | TimeoutException e) {
+                    isStopped = false;
+                }
+            }
+            return isStopped;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            stoppers.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds the JVM shutdown hook which stops all running services concurrently.
+     * The hook is added once, next calls are ignored.
+     *
+     * @param timeout is the max time of stopping of all services
+     * @param timeUnit is the unit of the timeout
+     */
+    public static void stopAllOnShutdown(final long timeout, final TimeUnit timeUnit) {
+        checkNotNull(timeUnit, "timeUnit parameter is NULL!");
+        if (!IS_SHUTDOWN_HOOK_ADDED.compareAndSet(false, true)) {
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                stopAll(new ArrayList<>(RUNNING_SERVICES), timeout, timeUnit);
+            }
+        }, "appium-services-shutdown"));
+    }
+
 }
@@ -0,0 +1,306 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import io.appium.java_client.remote.metrics.CommandMetrics;
+import io.appium.java_client.remote.metrics.CommandStatistics;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Starts several local appium servers and spreads sessions across them. Unlike
+ * {@link AppiumDriverLocalServicePool} a server may serve several sessions at the same time,
+ * so one Node.js process doesn't have to serve all devices which are attached to the host.
+ * Drivers which are created with the group take a {@link Lease} of a server on creation and release
+ * it on quit. The group tracks active sessions and command latency of every server.
+ */
+public final class AppiumDriverLocalServiceGroup implements AppiumServiceProvider, Closeable {
+
+    /**
+     * Defines how the server for the new session is chosen.
+     */
+    public enum BalancingStrategy {
+        /**
+         * Servers are taken one after another.
+         */
+        ROUND_ROBIN,
+        /**
+         * The server with the lowest count of active sessions is taken. If there are several ones
+         * the server with the lowest mean command latency is taken.
+         */
+        LEAST_ACTIVE_SESSIONS
+    }
+
+    /**
+     * A session which is served by a server of the group. The lease is released once:
+     * next calls of {@link #release()} do nothing, so other sessions of the server stay counted.
+     */
+    public static final class Lease implements Closeable {
+        private final Member member;
+        private final AtomicBoolean isReleased = new AtomicBoolean();
+
+        private Lease(Member member) {
+            this.member = member;
+        }
+
+        public AppiumDriverLocalService getService() {
+            return member.service;
+        }
+
+        public void release() {
+            if (isReleased.compareAndSet(false, true)) {
+                member.leases.remove(this);
+            }
+        }
+
+        /**
+         * The same as {@link #release()}.
+         */
+        @Override
+        public void close() {
+            release();
+        }
+    }
+
+    private static final class Member {
+        private final AppiumDriverLocalService service;
+        private final Set<Lease> leases = Sets.newConcurrentHashSet();
+        //leases which have been taken by acquire() and are released by release(service)
+        private final Queue<Lease> acquiredLeases = new ConcurrentLinkedQueue<>();
+        private final AtomicLong totalSessions = new AtomicLong();
+        private final CommandMetrics metrics = new CommandMetrics();
+
+        private Member(AppiumDriverLocalService service) {
+            this.service = service;
+        }
+
+        private int getActiveSessions() {
+            return leases.size();
+        }
+
+        private double getMeanLatencyMicros() {
+            long count = 0;
+            long totalMicros = 0;
+            for (CommandStatistics statistics: metrics.getStatistics().values()) {
+                count += statistics.getCount();
+                totalMicros += statistics.getTotalMicros();
+            }
+            return count == 0 ? 0 : (double) totalMicros / count;
+        }
+    }
+
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private final List<Member> members;
+    private final BalancingStrategy strategy;
+    private final AtomicInteger nextMember = new AtomicInteger();
+    private volatile boolean isClosed;
+
+    /**
+     * Starts servers concurrently and waits until all of them are started.
+     *
+     * @param builder is the template of servers. Every server is started on its own free port
+     *                (or on its own block of ports if the builder uses
+     *                {@link AppiumServiceBuilder#usingPortAllocator(PortRangeAllocator)}). The builder
+     *                is changed by {@link AppiumServiceBuilder#usingAnyFreePort()}.
+     * @param size is the count of servers
+     * @param strategy defines how the server for the new session is chosen
+     * @throws AppiumServerHasNotBeenStartedLocallyException if some server has not been started.
+     * Other servers are stopped then.
+     */
+    public AppiumDriverLocalServiceGroup(AppiumServiceBuilder builder, int size, BalancingStrategy strategy)
+            throws AppiumServerHasNotBeenStartedLocallyException {
+        checkNotNull(builder, "builder parameter is NULL!");
+        checkArgument(size > 0, "The size of the group should be positive");
+        this.strategy = checkNotNull(strategy, "strategy parameter is NULL!");
+
+        ImmutableList.Builder<Member> members = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            members.add(new Member(builder.usingAnyFreePort().build()));
+        }
+        this.members = members.build();
+        startAll();
+    }
+
+    private void startAll() {
+        ExecutorService starter = Executors.newFixedThreadPool(members.size(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "appium-server-group-starter");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<?>> starts = new ArrayList<>();
+            for (final Member member: members) {
+                starts.add(starter.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        member.service.start();
+                    }
+                }));
+            }
+            for (Future<?> start: starts) {
+                start.get();
+            }
+        } catch (ExecutionException e) {
+            close();
+            throw new AppiumServerHasNotBeenStartedLocallyException("The group of appium servers has not been started",
+                    e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new AppiumServerHasNotBeenStartedLocallyException("Starting of appium servers has been interrupted", e);
+        } finally {
+            starter.shutdownNow();
+        }
+    }
+
+    private Member choose() {
+        int size = members.size();
+        int first = (nextMember.getAndIncrement() & Integer.MAX_VALUE) % size;
+        Member chosen = null;
+        for (int i = 0; i < size; i++) {
+            Member member = members.get((first + i) % size);
+            if (!member.service.isRunning()) {
+                continue;
+            }
+            if (strategy == BalancingStrategy.ROUND_ROBIN) {
+                return member;
+            }
+            if (chosen == null || member.getActiveSessions() < chosen.getActiveSessions()
+                    || (member.getActiveSessions() == chosen.getActiveSessions()
+                    && member.getMeanLatencyMicros() < chosen.getMeanLatencyMicros())) {
+                chosen = member;
+            }
+        }
+        return chosen;
+    }
+
+    private Member find(AppiumDriverLocalService service) {
+        for (Member member: members) {
+            if (member.service == service) {
+                return member;
+            }
+        }
+        throw new IllegalArgumentException("The service doesn't belong to the group");
+    }
+
+    /**
+     * Chooses the server for the new session. Servers which are not running at the moment
+     * are skipped.
+     *
+     * @return the lease of the started server. It should be released when the session is finished.
+     * @throws AppiumServerHasNotBeenStartedLocallyException if no server is running
+     */
+    public Lease lease() throws AppiumServerHasNotBeenStartedLocallyException {
+        checkState(!isClosed, "The group of appium servers is closed");
+        Member member = choose();
+        if (member == null) {
+            throw new AppiumServerHasNotBeenStartedLocallyException("There is no running appium server in the group");
+        }
+        Lease lease = new Lease(member);
+        member.leases.add(lease);
+        member.totalSessions.incrementAndGet();
+        return lease;
+    }
+
+    /**
+     * The same as {@link #lease()}. The lease is released by {@link #release(AppiumDriverLocalService)}.
+     */
+    @Override
+    public AppiumDriverLocalService acquire() throws AppiumServerHasNotBeenStartedLocallyException {
+        Lease lease = lease();
+        lease.member.acquiredLeases.add(lease);
+        return lease.getService();
+    }
+
+    /**
+     * Releases one lease which has been taken by {@link #acquire()}. It does nothing if all of them
+     * have been released already. Leases which have been taken by {@link #lease()} are not affected.
+     *
+     * @param service is the server which has been returned by {@link #acquire()}
+     */
+    @Override
+    public void release(AppiumDriverLocalService service) {
+        Lease lease = find(service).acquiredLeases.poll();
+        if (lease != null) {
+            lease.release();
+        }
+    }
+
+    public List<AppiumDriverLocalService> getServices() {
+        List<AppiumDriverLocalService> services = new ArrayList<>();
+        for (Member member: members) {
+            services.add(member.service);
+        }
+        return services;
+    }
+
+    /**
+     * @param service is the server of the group
+     * @return count of sessions which the server serves now
+     */
+    public int getActiveSessions(AppiumDriverLocalService service) {
+        return find(service).getActiveSessions();
+    }
+
+    /**
+     * @param service is the server of the group
+     * @return count of sessions which have been given to the server
+     */
+    public long getTotalSessions(AppiumDriverLocalService service) {
+        return find(service).totalSessions.get();
+    }
+
+    /**
+     * @param service is the server of the group
+     * @return metrics of commands which have been sent to the server by drivers of the group
+     */
+    public CommandMetrics getMetrics(AppiumDriverLocalService service) {
+        return find(service).metrics;
+    }
+
+    /**
+     * Stops all servers concurrently within 30 seconds.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        AppiumDriverLocalService.stopAll(getServices(), STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
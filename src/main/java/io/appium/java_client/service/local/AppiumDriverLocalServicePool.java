@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Keeps several local appium servers started in background, each one on its own port.
+ * Drivers which are created with the pool lease a started server and return it on quit
+ * instead of stopping it, so the server start-up time is paid once per server rather than
+ * once per driver. A server which fails to start is started again after a growing delay.
+ * After the last failed attempt it is not used anymore.
+ */
+public final class AppiumDriverLocalServicePool implements AppiumServiceProvider, Closeable {
+
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+    private static final int MAX_START_ATTEMPTS = 3;
+    //the delay is doubled by each next attempt
+    private static final long FIRST_RETRY_DELAY_MILLIS = 1000;
+    //how often lease() checks whether every server has failed to start
+    private static final long FAILURE_CHECK_MILLIS = 100;
+
+    private final List<AppiumDriverLocalService> services;
+    private final BlockingQueue<AppiumDriverLocalService> idleServices = new LinkedBlockingQueue<>();
+    private final Set<AppiumDriverLocalService> leasedServices = Sets.newConcurrentHashSet();
+    //servers which have failed all start attempts
+    private final Set<AppiumDriverLocalService> failedServices = Sets.newConcurrentHashSet();
+    private final ScheduledExecutorService starter;
+    private final long leaseTimeout;
+    private final TimeUnit timeUnit;
+    private volatile Throwable lastStartFailure;
+    private volatile boolean isClosed;
+
+    /**
+     * @param builder is the template of servers. The port of the builder is ignored because every
+     *                server is started on its own free port. The builder is changed
+     *                by {@link AppiumServiceBuilder#usingAnyFreePort()}.
+     * @param size is the count of servers
+     */
+    public AppiumDriverLocalServicePool(AppiumServiceBuilder builder, int size) {
+        this(builder, size, 2, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param builder is the template of servers. The port of the builder is ignored because every
+     *                server is started on its own free port. The builder is changed
+     *                by {@link AppiumServiceBuilder#usingAnyFreePort()}.
+     * @param size is the count of servers
+     * @param leaseTimeout is how long {@link #lease()} waits for a started server
+     * @param timeUnit is the time unit of the lease timeout
+     */
+    public AppiumDriverLocalServicePool(AppiumServiceBuilder builder, int size, long leaseTimeout,
+                                        TimeUnit timeUnit) {
+        checkNotNull(builder, "builder parameter is NULL!");
+        checkArgument(size > 0, "The size of the pool should be positive");
+        this.leaseTimeout = leaseTimeout;
+        this.timeUnit = checkNotNull(timeUnit, "timeUnit parameter is NULL!");
+
+        ImmutableList.Builder<AppiumDriverLocalService> services = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            services.add(builder.usingAnyFreePort().build());
+        }
+        this.services = services.build();
+
+        starter = Executors.newScheduledThreadPool(size, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "appium-server-pool-starter");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        for (AppiumDriverLocalService service: this.services) {
+            startInBackground(service, 1);
+        }
+    }
+
+    private void startInBackground(final AppiumDriverLocalService service, final int attempt) {
+        long delay = attempt == 1 ? 0 : FIRST_RETRY_DELAY_MILLIS << (attempt - 2);
+        starter.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (isClosed) {
+                    return;
+                }
+                try {
+                    service.start();
+                } catch (Throwable t) {
+                    lastStartFailure = t;
+                    if (attempt < MAX_START_ATTEMPTS && !isClosed) {
+                        startInBackground(service, attempt + 1);
+                    } else {
+                        failedServices.add(service);
+                    }
+                    return;
+                }
+
+                if (isClosed) {
+                    service.stop();
+                    return;
+                }
+                idleServices.offer(service);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes a started server out of the pool. It waits for a server if all of them are leased
+     * or are still starting.
+     *
+     * @return the started server
+     * @throws AppiumServerHasNotBeenStartedLocallyException if there is no started server
+     * within the lease timeout or every server has failed to start
+     */
+    public AppiumDriverLocalService lease() throws AppiumServerHasNotBeenStartedLocallyException {
+        checkState(!isClosed, "The pool of appium servers is closed");
+        long deadline = System.nanoTime() + timeUnit.toNanos(leaseTimeout);
+        AppiumDriverLocalService service = null;
+        try {
+            while (service == null) {
+                if (failedServices.size() == services.size()) {
+                    throw new AppiumServerHasNotBeenStartedLocallyException("Every appium server of the pool "
+                            + "has failed to start " + MAX_START_ATTEMPTS + " times", lastStartFailure);
+                }
+                long timeLeft = deadline - System.nanoTime();
+                if (timeLeft <= 0) {
+                    throw new AppiumServerHasNotBeenStartedLocallyException("There is no started appium server "
+                            + "in the pool. The lease timeout: " + leaseTimeout + " " + timeUnit, lastStartFailure);
+                }
+                service = idleServices.poll(Math.min(timeLeft, TimeUnit.MILLISECONDS.toNanos(FAILURE_CHECK_MILLIS)),
+                        TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppiumServerHasNotBeenStartedLocallyException("Waiting for an appium server has been interrupted",
+                    e);
+        }
+
+        leasedServices.add(service);
+        return service;
+    }
+
+    /**
+     * The same as {@link #lease()}.
+     */
+    @Override
+    public AppiumDriverLocalService acquire() throws AppiumServerHasNotBeenStartedLocallyException {
+        return lease();
+    }
+
+    /**
+     * Returns the leased server to the pool. The server is restarted in background
+     * if it is not running.
+     *
+     * @param service is the server which has been returned by {@link #lease()}
+     */
+    @Override
+    public void release(AppiumDriverLocalService service) {
+        if (!leasedServices.remove(service)) {
+            return;
+        }
+        if (isClosed) {
+            service.stop();
+            return;
+        }
+
+        if (service.isRunning()) {
+            idleServices.offer(service);
+        } else {
+            startInBackground(service, 1);
+        }
+    }
+
+    public int getSize() {
+        return services.size();
+    }
+
+    /**
+     * @return count of started servers which can be leased right now
+     */
+    public int getIdleCount() {
+        return idleServices.size();
+    }
+
+    /**
+     * Stops all servers concurrently within 30 seconds. Leased servers are stopped too.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        starter.shutdownNow();
+        idleServices.clear();
+        AppiumDriverLocalService.stopAll(services, STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -18,6 +18,8 @@ package io.appium.java_client.service.local;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.appium.java_client.service.local.flags.AndroidServerFlag;
+import io.appium.java_client.service.local.flags.GeneralServerFlag;
 import io.appium.java_client.service.local.flags.ServerArgument;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -29,6 +31,7 @@ import org.openqa.selenium.remote.service.DriverService;
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -50,6 +53,19 @@ public final class AppiumServiceBuilder extends DriverService.Builder<AppiumDriv
      */
     public static final String NODE_PATH = "NODE_BINARY_PATH";
 
+    /**
+     * The environmental variable (or the system property) used to define
+     * the file where paths to Node.js and appium which have been found
+     * are kept between JVM runs. Within the same JVM they are always reused.
+     */
+    public static final String DISCOVERY_CACHE = "APPIUM_DISCOVERY_CACHE";
+
+    /**
+     * The pattern of the line which is printed by the server when it starts listening.
+     * E.g. "Appium REST http interface listener started on 0.0.0.0:4723"
+     */
+    public static final Pattern LISTENER_STARTED_PATTERN = Pattern.compile("listener started on");
+
     private static final String APPIUM_FOLDER = "appium";
 
     private static final String BIN_FOLDER = "bin";
@@ -84,6 +100,11 @@ public final class AppiumServiceBuilder extends DriverService.Builder<AppiumDriv
     //environment
     private long startupTimeout = 120;
     private TimeUnit timeUnit = TimeUnit.SECONDS;
+    private ServerLogOptions logOptions = new ServerLogOptions();
+    private Pattern readinessPattern;
+    private PortRangeAllocator portAllocator;
+    //the block which is reserved for the service being built
+    private PortRangeAllocator.PortBlock portBlock;
 
     private void setUpNPMScript(){
         if (npmScript != null) {
@@ -177,6 +198,11 @@ public final class AppiumServiceBuilder extends DriverService.Builder<AppiumDriv
             }
         }
 
+        File cached = DiscoveryCache.get(DiscoveryCache.NODE_JS);
+        if (cached != null) {
+            return cached;
+        }
+
         CommandLine commandLine;
         setUpGetNodeJSExecutableScript();
         try {
@@ -200,7 +226,9 @@ public final class AppiumServiceBuilder extends DriverService.Builder<AppiumDriv
                 String errorMessage = "Can't get a path to the default Node.js instance";
                 throw new InvalidNodeJSInstance(errorMessage, new IOException(errorOutput));
             }
-            return new File(filePath);
+            File result = new File(filePath);
+            DiscoveryCache.put(DiscoveryCache.NODE_JS, result);
+            return result;
         }
         finally {
             commandLine.destroy();
@@ -255,6 +283,16 @@ public final class AppiumServiceBuilder extends DriverService.Builder<AppiumDriv
         return this;
     }
 
+    /**
+     * Defines how the output of the server is buffered, filtered and written.
+     *
+     * @param logOptions is the definition of the output handling
+     * @return A self reference.
+     */
+    public AppiumServiceBuilder withLogOptions(ServerLogOptions logOptions) {
+        this.logOptions = checkNotNull(logOptions, "logOptions parameter is NULL!");
+        return this;
+    }
 
     void checkAppiumJS(){
         if (appiumJS != null){
@@ -273,7 +311,13 @@ public final class AppiumServiceBuilder extends DriverService.Builder<AppiumDriv
             return;
         }
 
+        File cached = DiscoveryCache.get(DiscoveryCache.APPIUM_JS);
+        if (cached != null) {
+            this.appiumJS = cached;
+            return;
+        }
         this.appiumJS = findNodeInCurrentFileSystem();
+        DiscoveryCache.put(DiscoveryCache.APPIUM_JS, this.appiumJS);
     }
 
     @Override
@@ -302,7 +346,20 @@ public final class AppiumServiceBuilder extends DriverService.Builder<AppiumDriv
             argList.add(log.getAbsolutePath());
         }
 
-        Set<Map.Entry<String, String>> entries = serverArguments.entrySet();
+        Map<String, String> arguments = new LinkedHashMap<>();
+        if (portBlock != null) {
+            //ports of the block: server, bootstrap, selendroid, chromedriver
+            String[] portArguments = {AndroidServerFlag.BOOTSTRAP_PORT_NUMBER.getArgument(),
+                    AndroidServerFlag.SELENDROID_PORT.getArgument(),
+                    GeneralServerFlag.CHROME_DRIVER_PORT.getArgument()};
+            for (int i = 0; i < portArguments.length && i + 1 < portBlock.getSize(); i++) {
+                arguments.put(portArguments[i], String.valueOf(portBlock.getPort(i + 1)));
+            }
+        }
+        //ports which are defined explicitly are not overridden
+        arguments.putAll(serverArguments);
+
+        Set<Map.Entry<String, String>> entries = arguments.entrySet();
         for (Map.Entry<String, String> entry : entries) {
             String argument = entry.getKey();
             String value = entry.getValue();
@@ -369,12 +426,62 @@ public final class AppiumServiceBuilder extends DriverService.Builder<AppiumDriv
         return super.withLogFile(logFile);
     }
 
+    /**
+     * Makes the service detect that the server is ready by the line of its output.
+     * The /status is requested once the line is found. It is polled as before
+     * if the line is not found while the server is alive.
+     *
+     * @param readinessPattern is the pattern of the line. See {@link #LISTENER_STARTED_PATTERN}
+     * @return A self reference.
+     */
+    public AppiumServiceBuilder withReadinessPattern(Pattern readinessPattern) {
+        this.readinessPattern = checkNotNull(readinessPattern, "readinessPattern parameter is NULL!");
+        return this;
+    }
+
+    /**
+     * Makes the builder reserve a block of ports for each built service. The first port is used
+     * by the server, the next ones are passed as the bootstrap, selendroid and chromedriver ports
+     * unless these arguments are defined explicitly. The block is reserved by {@link #build()}
+     * because ports are a part of the server command line and URL. It is held until
+     * {@link AppiumDriverLocalService#stop()} is called, so a built service which is not going to be
+     * started should be stopped too. {@link AppiumDriverLocalService#start()} reserves the same
+     * block again after the stop.
+     *
+     * @param portAllocator is the allocator of port blocks
+     * @return A self reference.
+     */
+    public AppiumServiceBuilder usingPortAllocator(PortRangeAllocator portAllocator) {
+        this.portAllocator = checkNotNull(portAllocator, "portAllocator parameter is NULL!");
+        return this;
+    }
+
+    @Override
+    public AppiumDriverLocalService build() {
+        if (portAllocator == null) {
+            return super.build();
+        }
+
+        int definedPort = getPort();
+        portBlock = portAllocator.allocate();
+        try {
+            usingPort(portBlock.getPort(0));
+            return super.build();
+        } catch (RuntimeException e) {
+            portBlock.close();
+            throw e;
+        } finally {
+            portBlock = null;
+            usingPort(definedPort);
+        }
+    }
+
     @Override
     protected AppiumDriverLocalService createDriverService(File nodeJSExecutable, int nodeJSPort, ImmutableList<String> nodeArguments,
                                                            ImmutableMap<String, String> nodeEnvironment) {
         try {
             return new AppiumDriverLocalService(ipAddress, nodeJSExecutable, nodeJSPort, nodeArguments, nodeEnvironment,
-                    startupTimeout, timeUnit);
+                    startupTimeout, timeUnit, logOptions, readinessPattern, portBlock);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
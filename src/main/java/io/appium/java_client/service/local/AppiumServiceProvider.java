@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+/**
+ * Gives started local appium servers to drivers and takes them back when sessions are finished.
+ * See {@link AppiumDriverLocalServicePool} and {@link AppiumDriverLocalServiceGroup}
+ */
+public interface AppiumServiceProvider {
+
+    /**
+     * @return the started server for the new session
+     * @throws AppiumServerHasNotBeenStartedLocallyException if there is no started server
+     */
+    AppiumDriverLocalService acquire() throws AppiumServerHasNotBeenStartedLocallyException;
+
+    /**
+     * @param service is the server which has been returned by {@link #acquire()}.
+     *                Its session is finished.
+     */
+    void release(AppiumDriverLocalService service);
+}
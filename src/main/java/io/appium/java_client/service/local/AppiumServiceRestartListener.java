@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+/**
+ * Is notified by {@link AppiumServiceSupervisor} about restarts of the crashed server.
+ */
+public interface AppiumServiceRestartListener {
+
+    /**
+     * Is invoked when the crashed server has been started again.
+     *
+     * @param service is the restarted service
+     * @param attempt is the number of the attempt since the crash, starting from 1
+     */
+    void onRestarted(AppiumDriverLocalService service, int attempt);
+
+    /**
+     * Is invoked when the attempt to start the crashed server has failed.
+     *
+     * @param service is the service which has not been restarted
+     * @param attempt is the number of the attempt since the crash, starting from 1
+     * @param failure is the reason
+     * @param willRetry is false if the supervisor has given up
+     */
+    void onRestartFailed(AppiumDriverLocalService service, int attempt, Throwable failure, boolean willRetry);
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+/**
+ * States of {@link AppiumDriverLocalService} which are tracked by its background health monitor.
+ */
+public enum AppiumServiceState {
+    /**
+     * The server process is running and responds to /status requests.
+     */
+    RUNNING,
+    /**
+     * The server process is running but it doesn't respond to /status requests.
+     */
+    NOT_RESPONDING,
+    /**
+     * The server process is not running. It hasn't been started or it has been stopped.
+     */
+    STOPPED,
+    /**
+     * The server process has exited although it has not been stopped.
+     * See {@link AppiumServiceSupervisor}
+     */
+    CRASHED
+}
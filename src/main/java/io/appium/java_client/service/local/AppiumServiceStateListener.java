@@ -0,0 +1,32 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+/**
+ * Is notified when the state of {@link AppiumDriverLocalService} changes. It may be invoked
+ * by the thread which starts/stops the service or by the health monitor thread, so
+ * implementations should be fast and thread-safe.
+ */
+public interface AppiumServiceStateListener {
+
+    /**
+     * @param service is the service whose state has changed
+     * @param oldState is the previous state
+     * @param newState is the current state
+     */
+    void onStateChanged(AppiumDriverLocalService service, AppiumServiceState oldState,
+                        AppiumServiceState newState);
+}
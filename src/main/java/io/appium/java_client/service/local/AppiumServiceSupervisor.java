@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Restarts the local appium server on the same port when its process exits although
+ * the service has not been stopped (see {@link AppiumServiceState#CRASHED}).
+ * The delay before the next attempt is doubled after each failure: 0.5, 1, 2 ... up to 30 seconds
+ * by default. The supervisor gives up after 10 failed attempts in a row. When the restarted server
+ * keeps working longer than the max delay the counting of attempts starts over.
+ * The explicit stop of the service is not considered as a crash. But the supervisor should be
+ * closed before the service is stopped if it may be restarting the service at the moment.
+ * Exceptions thrown by restart listeners are ignored, so they don't stop next attempts
+ * and don't prevent other listeners from being notified.
+ *
+ * <pre>
+ * AppiumDriverLocalService service = AppiumDriverLocalService.buildDefaultService();
+ * AppiumServiceSupervisor supervisor = new AppiumServiceSupervisor(service);
+ * service.start();
+ * ...
+ * supervisor.close();
+ * service.stop();
+ * </pre>
+ */
+public class AppiumServiceSupervisor implements Closeable {
+    private static final long DEFAULT_INITIAL_BACKOFF_MS = 500;
+    private static final long DEFAULT_MAX_BACKOFF_MS = 30000;
+    private static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private final AppiumDriverLocalService service;
+    private final ScheduledExecutorService restarter;
+    private final List<AppiumServiceRestartListener> restartListeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger restartCount = new AtomicInteger();
+    private final AppiumServiceStateListener crashListener = new AppiumServiceStateListener() {
+        @Override
+        public void onStateChanged(AppiumDriverLocalService service, AppiumServiceState oldState,
+                                   AppiumServiceState newState) {
+            if (newState == AppiumServiceState.CRASHED) {
+                onCrash();
+            } else if (newState == AppiumServiceState.STOPPED && Thread.currentThread() != restarterThread) {
+                //the service has been stopped by the user
+                synchronized (AppiumServiceSupervisor.this) {
+                    isRecovering = false;
+                }
+            }
+        }
+    };
+
+    private volatile Thread restarterThread;
+    private long initialBackoffMs = DEFAULT_INITIAL_BACKOFF_MS;
+    private long maxBackoffMs = DEFAULT_MAX_BACKOFF_MS;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    //the fields below are guarded by this
+    private int attempt;
+    private boolean isRestartScheduled;
+    private boolean isRecovering;
+    private long lastRestartAt;
+    private boolean isClosed;
+
+    /**
+     * @param service is the service to be supervised. It may be started before or after
+     *                the supervisor is created.
+     */
+    public AppiumServiceSupervisor(AppiumDriverLocalService service) {
+        this.service = checkNotNull(service, "service parameter is NULL!");
+        restarter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "appium-service-supervisor");
+                thread.setDaemon(true);
+                restarterThread = thread;
+                return thread;
+            }
+        });
+        service.addStateListener(crashListener);
+    }
+
+    /**
+     * @param initialDelay is the delay before the first attempt to restart
+     * @param maxDelay is the max delay between attempts
+     * @param timeUnit is the unit of the delays
+     * @return self-reference
+     */
+    public synchronized AppiumServiceSupervisor withBackoff(long initialDelay, long maxDelay, TimeUnit timeUnit) {
+        checkNotNull(timeUnit);
+        checkArgument(initialDelay >= 0 && maxDelay >= initialDelay, "Invalid delays");
+        this.initialBackoffMs = timeUnit.toMillis(initialDelay);
+        this.maxBackoffMs = timeUnit.toMillis(maxDelay);
+        return this;
+    }
+
+    /**
+     * @param maxAttempts is the max count of failed attempts in a row
+     * @return self-reference
+     */
+    public synchronized AppiumServiceSupervisor withMaxAttempts(int maxAttempts) {
+        checkArgument(maxAttempts > 0, "The count of attempts should be positive");
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public void addRestartListener(AppiumServiceRestartListener listener) {
+        checkNotNull(listener, "listener parameter is NULL!");
+        restartListeners.add(listener);
+    }
+
+    public void removeRestartListener(AppiumServiceRestartListener listener) {
+        restartListeners.remove(listener);
+    }
+
+    /**
+     * @return the count of successful restarts
+     */
+    public int getRestartCount() {
+        return restartCount.get();
+    }
+
+    private synchronized void onCrash() {
+        //the server has worked long enough after the last restart
+        if (System.currentTimeMillis() - lastRestartAt > maxBackoffMs) {
+            attempt = 0;
+        }
+        isRecovering = true;
+        scheduleRestart();
+    }
+
+    private synchronized void scheduleRestart() {
+        if (isClosed || isRestartScheduled) {
+            return;
+        }
+        attempt++;
+        long delay = attempt > 31 ? maxBackoffMs : Math.min(initialBackoffMs << (attempt - 1), maxBackoffMs);
+        isRestartScheduled = true;
+        final int currentAttempt = attempt;
+        restarter.schedule(new Runnable() {
+            @Override
+            public void run() {
+                restart(currentAttempt);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void restart(int currentAttempt) {
+        synchronized (this) {
+            isRestartScheduled = false;
+            //the service has been stopped or started by somebody else
+            if (isClosed || !isRecovering || service.isRunning()) {
+                isRecovering = false;
+                return;
+            }
+        }
+
+        try {
+            service.start();
+        } catch (RuntimeException e) {
+            boolean willRetry;
+            synchronized (this) {
+                willRetry = !isClosed && currentAttempt < maxAttempts;
+            }
+            if (willRetry) {
+                scheduleRestart();
+            }
+            for (AppiumServiceRestartListener listener: restartListeners) {
+                try {
+                    listener.onRestartFailed(service, currentAttempt, e, willRetry);
+                } catch (RuntimeException ignored) {
+                    //a failed listener doesn't affect the supervisor and other listeners
+                }
+            }
+            return;
+        }
+
+        synchronized (this) {
+            lastRestartAt = System.currentTimeMillis();
+            isRecovering = false;
+        }
+        restartCount.incrementAndGet();
+        for (AppiumServiceRestartListener listener: restartListeners) {
+            try {
+                listener.onRestarted(service, currentAttempt);
+            } catch (RuntimeException ignored) {
+                //a failed listener doesn't affect the supervisor and other listeners
+            }
+        }
+    }
+
+    /**
+     * Stops supervising. The service is not stopped.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            isClosed = true;
+        }
+        service.removeStateListener(crashListener);
+        restarter.shutdownNow();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import com.google.common.base.Charsets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits the server output into lines, filters them by level and puts them into a bounded
+ * queue. Lines are written to the target stream by a separate daemon thread. It is supposed
+ * that the stream is written by one thread.
+ */
+class AsyncLogOutputStream extends OutputStream {
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+    //marks the end of the output
+    private static final byte[] END = new byte[0];
+
+    private final OutputStream target;
+    private final ServerLogOptions.OverflowPolicy overflowPolicy;
+    private final ServerLogLevel minimumLevel;
+    private final BlockingQueue<byte[]> lines;
+    private final AtomicLong droppedLines = new AtomicLong();
+    private final ByteArrayOutputStream currentLine = new ByteArrayOutputStream();
+    private final Thread writer;
+    private final ReadinessWatcher readinessWatcher;
+    private ServerLogLevel lastLevel = ServerLogLevel.INFO;
+    private boolean isClosed;
+    //System.nanoTime() when close() stops waiting for the writer
+    private long closeDeadline;
+
+    AsyncLogOutputStream(OutputStream target, ServerLogOptions options, ReadinessWatcher readinessWatcher) {
+        this.target = target;
+        this.readinessWatcher = readinessWatcher;
+        this.overflowPolicy = options.getOverflowPolicy();
+        this.minimumLevel = options.getMinimumLevel();
+        this.lines = new ArrayBlockingQueue<>(options.getBufferCapacity());
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLines();
+            }
+        }, "appium-server-output-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @return the count of lines which have been dropped because the buffer was full
+     */
+    long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    private void writeLines() {
+        long reportedDrops = 0;
+        try {
+            while (true) {
+                byte[] line = lines.take();
+                long dropped = droppedLines.get();
+                if (dropped > reportedDrops) {
+                    writeQuietly(("[java-client] " + (dropped - reportedDrops)
+                            + " lines of the server output have been dropped\n").getBytes(Charsets.UTF_8));
+                    reportedDrops = dropped;
+                }
+                if (line == END) {
+                    flushQuietly();
+                    return;
+                }
+                writeQuietly(line);
+                if (lines.isEmpty()) {
+                    flushQuietly();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //a broken stream shouldn't stop the writing to other ones
+    private void writeQuietly(byte[] line) {
+        try {
+            target.write(line, 0, line.length);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            target.flush();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void enqueue(byte[] line) throws IOException {
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    if (!isClosed) {
+                        lines.put(line);
+                    } else if (!lines.offer(line, getTimeBeforeCloseDeadline(), TimeUnit.NANOSECONDS)) {
+                        droppedLines.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                break;
+            case DROP_NEWEST:
+                if (!lines.offer(line)) {
+                    droppedLines.incrementAndGet();
+                }
+                break;
+            case DROP_OLDEST:
+                while (!lines.offer(line)) {
+                    if (lines.poll() != null) {
+                        droppedLines.incrementAndGet();
+                    }
+                }
+                break;
+        }
+    }
+
+    private long getTimeBeforeCloseDeadline() {
+        return Math.max(0, closeDeadline - System.nanoTime());
+    }
+
+    private void completeLine() throws IOException {
+        if (currentLine.size() == 0) {
+            return;
+        }
+        byte[] line = currentLine.toByteArray();
+        currentLine.reset();
+
+        //lines of stack traces and multiline objects have the level of the line they follow
+        boolean isContinuation = line[0] == ' ' || line[0] == '\t';
+        boolean isWatched = readinessWatcher != null && readinessWatcher.isWaiting();
+        if (!isContinuation || isWatched) {
+            String text = new String(line, Charsets.UTF_8);
+            if (!isContinuation) {
+                lastLevel = ServerLogLevel.of(text);
+            }
+            if (isWatched) {
+                readinessWatcher.onLine(text);
+            }
+        }
+        if (lastLevel.compareTo(minimumLevel) >= 0) {
+            enqueue(line);
+        }
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        if (isClosed) {
+            throw new IOException("The stream is closed");
+        }
+        int lineStart = offset;
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] == '\n' || currentLine.size() + i - lineStart + 1 >= MAX_LINE_LENGTH) {
+                currentLine.write(bytes, lineStart, i - lineStart + 1);
+                lineStart = i + 1;
+                completeLine();
+            }
+        }
+        currentLine.write(bytes, lineStart, offset + length - lineStart);
+    }
+
+    /**
+     * Writes the rest of the output and waits until the queued lines are written, but not longer
+     * than 5 seconds. If the target stream is still blocked then the oldest queued lines
+     * are dropped, so the writer thread finishes when the stream is released.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        closeDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MS);
+        completeLine();
+        if (readinessWatcher != null) {
+            readinessWatcher.onEnd();
+        }
+        try {
+            if (!lines.offer(END, getTimeBeforeCloseDeadline(), TimeUnit.NANOSECONDS)) {
+                while (!lines.offer(END)) {
+                    if (lines.poll() != null) {
+                        droppedLines.incrementAndGet();
+                    }
+                }
+            }
+            writer.join(TimeUnit.NANOSECONDS.toMillis(getTimeBeforeCloseDeadline()) + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps paths to Node.js and appium which have been found by {@link AppiumServiceBuilder}, so
+ * the searching which spawns processes is performed once. Found paths are kept in memory
+ * and, if {@link AppiumServiceBuilder#DISCOVERY_CACHE} is defined, in the file between JVM runs.
+ * A found path is reused while the PATH environment variable is the same and the found file
+ * hasn't been changed (size and modification time), e.g. by an upgrade.
+ */
+final class DiscoveryCache {
+    static final String NODE_JS = "node";
+    static final String APPIUM_JS = "appium";
+
+    private static final String PATH_VARIABLE = "PATH";
+    private static final String FILE = ".file";
+    private static final String MODIFIED = ".modified";
+    private static final String LENGTH = ".length";
+    private static final String ENVIRONMENT_PATH = ".envPath";
+
+    private static final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static class Entry {
+        private final File file;
+        private final long modified;
+        private final long length;
+        private final String environmentPath;
+
+        private Entry(File file, long modified, long length, String environmentPath) {
+            this.file = file;
+            this.modified = modified;
+            this.length = length;
+            this.environmentPath = environmentPath;
+        }
+
+        private boolean isValid() {
+            return StringUtils.equals(environmentPath, System.getenv(PATH_VARIABLE))
+                    && file.isFile() && file.lastModified() == modified && file.length() == length;
+        }
+    }
+
+    private DiscoveryCache() {
+    }
+
+    private static File getCacheFile() {
+        String path = System.getProperty(AppiumServiceBuilder.DISCOVERY_CACHE);
+        if (StringUtils.isBlank(path)) {
+            path = System.getenv(AppiumServiceBuilder.DISCOVERY_CACHE);
+        }
+        return StringUtils.isBlank(path) ? null : new File(path);
+    }
+
+    /**
+     * @param key is {@link #NODE_JS} or {@link #APPIUM_JS}
+     * @return the previously found file or NULL if it is unknown or not valid anymore
+     */
+    static File get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = load(key);
+        }
+
+        if (entry == null || !entry.isValid()) {
+            entries.remove(key);
+            return null;
+        }
+        entries.put(key, entry);
+        return entry.file;
+    }
+
+    /**
+     * @param key is {@link #NODE_JS} or {@link #APPIUM_JS}
+     * @param file is the found file
+     */
+    static void put(String key, File file) {
+        Entry entry = new Entry(file.getAbsoluteFile(), file.lastModified(), file.length(),
+                System.getenv(PATH_VARIABLE));
+        entries.put(key, entry);
+        store(key, entry);
+    }
+
+    //the file cache is an optimization only, so any problem with it means that paths are searched for again
+    private static synchronized Entry load(String key) {
+        File cacheFile = getCacheFile();
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return null;
+        }
+
+        Properties properties = read(cacheFile);
+        String file = properties.getProperty(key + FILE);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new Entry(new File(file), Long.parseLong(properties.getProperty(key + MODIFIED)),
+                    Long.parseLong(properties.getProperty(key + LENGTH)),
+                    properties.getProperty(key + ENVIRONMENT_PATH));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static synchronized void store(String key, Entry entry) {
+        File cacheFile = getCacheFile();
+        if (cacheFile == null) {
+            return;
+        }
+
+        Properties properties = cacheFile.isFile() ? read(cacheFile) : new Properties();
+        properties.setProperty(key + FILE, entry.file.getAbsolutePath());
+        properties.setProperty(key + MODIFIED, String.valueOf(entry.modified));
+        properties.setProperty(key + LENGTH, String.valueOf(entry.length));
+        if (entry.environmentPath != null) {
+            properties.setProperty(key + ENVIRONMENT_PATH, entry.environmentPath);
+        } else {
+            properties.remove(key + ENVIRONMENT_PATH);
+        }
+
+        try {
+            File directory = cacheFile.getAbsoluteFile().getParentFile();
+            if (directory != null && !directory.exists()) {
+                directory.mkdirs();
+            }
+            //other JVMs may read the file at the same time, so it is replaced atomically
+            File temporary = File.createTempFile(cacheFile.getName(), ".tmp", directory);
+            try (OutputStream outputStream = new FileOutputStream(temporary)) {
+                properties.store(outputStream, "Paths found by io.appium.java_client.service.local.AppiumServiceBuilder");
+            }
+            Files.move(temporary.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignored) {
+            //paths will be searched for again by the next JVM
+        }
+    }
+
+    private static Properties read(File cacheFile) {
+        Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(cacheFile)) {
+            properties.load(inputStream);
+        } catch (IOException ignored) {
+            //the broken file is overwritten further
+        }
+        return properties;
+    }
+}
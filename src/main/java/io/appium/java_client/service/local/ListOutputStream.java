@@ -19,12 +19,12 @@ package io.appium.java_client.service.local;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 class ListOutputStream extends OutputStream {
 
-    private final List<OutputStream> streams = new ArrayList<>();
+    private final List<OutputStream> streams = new CopyOnWriteArrayList<>();
 
     ListOutputStream add(OutputStream stream) {
         streams.add(stream);
@@ -0,0 +1,222 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reserves blocks of ports from the given range. Each block is protected by the lock of its own
+ * file in the lock directory, so processes which use the same range and the same directory
+ * never get the same block. The lock is released by the operating system if the process dies.
+ * See {@link AppiumServiceBuilder#usingPortAllocator(PortRangeAllocator)}
+ */
+public class PortRangeAllocator {
+    /**
+     * Ports of the server, bootstrap, selendroid and chromedriver.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4;
+    private static final String LOCK_DIRECTORY = "appium-ports";
+    //The operating system releases all locks of the process on the file when any descriptor
+    //of this file is closed. So files of blocks which are held by this process are never opened again.
+    private static final Set<File> LOCKED_FILES = Collections.synchronizedSet(new HashSet<File>());
+
+    private final int firstPort;
+    private final int lastPort;
+    private final int blockSize;
+    private final File lockDirectory;
+    private final Random random = new Random();
+
+    /**
+     * @param firstPort is the first port of the range
+     * @param lastPort is the last port of the range (inclusive)
+     */
+    public PortRangeAllocator(int firstPort, int lastPort) {
+        this(firstPort, lastPort, DEFAULT_BLOCK_SIZE,
+                new File(System.getProperty("java.io.tmpdir"), LOCK_DIRECTORY));
+    }
+
+    /**
+     * @param firstPort is the first port of the range
+     * @param lastPort is the last port of the range (inclusive)
+     * @param blockSize is the count of ports reserved at once
+     * @param lockDirectory is the directory of lock files. It should be the same for all processes
+     *                      which use the range.
+     */
+    public PortRangeAllocator(int firstPort, int lastPort, int blockSize, File lockDirectory) {
+        checkArgument(firstPort > 0 && lastPort <= 65535 && firstPort <= lastPort, "Invalid port range");
+        checkArgument(blockSize > 0 && blockSize <= lastPort - firstPort + 1,
+                "The block size should be positive and not greater than the range");
+        this.firstPort = firstPort;
+        this.lastPort = lastPort;
+        this.blockSize = blockSize;
+        this.lockDirectory = checkNotNull(lockDirectory, "lockDirectory parameter is NULL!");
+    }
+
+    /**
+     * Reserves the next free block. Ports of the block are checked to be not used by anything else.
+     *
+     * @return the reserved block. It should be closed when ports are not needed anymore.
+     * @throws IllegalStateException if there is no free block
+     */
+    public PortBlock allocate() {
+        if (!lockDirectory.exists() && !lockDirectory.mkdirs() && !lockDirectory.exists()) {
+            throw new RuntimeException("The lock directory " + lockDirectory.getAbsolutePath()
+                    + " can't be created");
+        }
+
+        int blocks = (lastPort - firstPort + 1) / blockSize;
+        //processes start from different blocks so they don't compete for the same ones
+        int start = random.nextInt(blocks);
+        for (int i = 0; i < blocks; i++) {
+            int blockFirstPort = firstPort + ((start + i) % blocks) * blockSize;
+            PortBlock block = new PortBlock(new File(lockDirectory, "port-" + blockFirstPort + ".lock"),
+                    blockFirstPort, blockSize);
+            if (block.lock()) {
+                if (areFree(block)) {
+                    return block;
+                }
+                block.close();
+            }
+        }
+        throw new IllegalStateException("There is no free block of " + blockSize + " ports in the range "
+                + firstPort + "-" + lastPort);
+    }
+
+    private static boolean areFree(PortBlock block) {
+        for (int i = 0; i < block.getSize(); i++) {
+            try (ServerSocket socket = new ServerSocket()) {
+                socket.bind(new InetSocketAddress(block.getPort(i)));
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The reserved sequence of ports.
+     */
+    public static final class PortBlock implements Closeable {
+        private final File lockFile;
+        private final int firstPort;
+        private final int size;
+        private RandomAccessFile file;
+        private FileLock lock;
+        //true if the lock file is registered in LOCKED_FILES by this block
+        private boolean isRegistered;
+
+        private PortBlock(File lockFile, int firstPort, int size) {
+            this.lockFile = lockFile.getAbsoluteFile();
+            this.firstPort = firstPort;
+            this.size = size;
+        }
+
+        /**
+         * @param index is the index of the port in the block
+         * @return the port
+         */
+        public int getPort(int index) {
+            checkElementIndex(index, size);
+            return firstPort + index;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return false if the block has been released
+         */
+        public synchronized boolean isLocked() {
+            return lock != null;
+        }
+
+        /**
+         * Reserves the block again if it has been released.
+         *
+         * @return false if the block is reserved by somebody else
+         */
+        synchronized boolean lock() {
+            if (lock != null) {
+                return true;
+            }
+            if (!LOCKED_FILES.add(lockFile)) {
+                //the block is reserved by this process
+                return false;
+            }
+            isRegistered = true;
+            try {
+                file = new RandomAccessFile(lockFile, "rw");
+                try {
+                    lock = file.getChannel().tryLock();
+                } catch (OverlappingFileLockException e) {
+                    lock = null;
+                }
+                if (lock == null) {
+                    close();
+                    return false;
+                }
+                return true;
+            } catch (IOException e) {
+                close();
+                throw new RuntimeException(e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Releases the block. The lock file is kept because its removal could allow
+         * two processes to lock different files of the same block.
+         */
+        @Override
+        public synchronized void close() {
+            try {
+                if (lock != null) {
+                    lock.release();
+                }
+                if (file != null) {
+                    file.close();
+                }
+            } catch (IOException ignored) {
+            } finally {
+                //the registration is removed on every failure of lock() too
+                if (isRegistered) {
+                    LOCKED_FILES.remove(lockFile);
+                }
+                isRegistered = false;
+                lock = null;
+                file = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+/**
+ * Receives samples of resources used by the local appium server process. Samples are taken
+ * by the background health monitor of {@link AppiumDriverLocalService} every 2 seconds, so
+ * implementations should be fast.
+ */
+public interface ProcessResourceListener {
+
+    /**
+     * @param service is the sampled service
+     * @param usage is the sample
+     */
+    void onSample(AppiumDriverLocalService service, ProcessResourceUsage usage);
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Reads resources used by the process from /proc. It works on Linux only.
+ */
+final class ProcessResourceSampler {
+    private static final File PROC = new File("/proc");
+    //the clock tick is 100 Hz on all mainstream Linux kernels
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final int UTIME_FIELD = 11;
+    private static final int STIME_FIELD = 12;
+
+    private ProcessResourceSampler() {
+    }
+
+    static boolean isSupported() {
+        return new File(PROC, "self/stat").exists();
+    }
+
+    /**
+     * @return the id of the process or -1 if it can't be found out
+     */
+    static int getPid(Process process) {
+        try {
+            //Java 9+
+            return ((Number) Process.class.getMethod("pid").invoke(process)).intValue();
+        } catch (Exception ignored) {
+        }
+        try {
+            Field pid = process.getClass().getDeclaredField("pid");
+            pid.setAccessible(true);
+            return pid.getInt(process);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param pid is the id of the process
+     * @param previous is the previous sample of the process. It may be null.
+     * @return the sample or null if the process doesn't exist anymore or /proc can't be read
+     */
+    static ProcessResourceUsage sample(int pid, ProcessResourceUsage previous) {
+        File directory = new File(PROC, String.valueOf(pid));
+        try {
+            long timestamp = System.currentTimeMillis();
+            //the command name may contain spaces, fields are counted after it
+            String stat = Files.toString(new File(directory, "stat"), Charsets.US_ASCII);
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            long cpuTimeMillis = (Long.parseLong(fields[UTIME_FIELD]) + Long.parseLong(fields[STIME_FIELD]))
+                    * 1000 / CLOCK_TICKS_PER_SECOND;
+
+            long residentMemoryBytes = 0;
+            int threads = 0;
+            List<String> status = Files.readLines(new File(directory, "status"), Charsets.US_ASCII);
+            for (String line: status) {
+                if (line.startsWith("VmRSS:")) {
+                    residentMemoryBytes = Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                } else if (line.startsWith("Threads:")) {
+                    threads = Integer.parseInt(line.substring(8).trim());
+                }
+            }
+
+            String[] descriptors = new File(directory, "fd").list();
+
+            double cpuLoad = -1;
+            if (previous != null && previous.getPid() == pid && timestamp > previous.getTimestamp()) {
+                cpuLoad = (double) (cpuTimeMillis - previous.getCpuTimeMillis())
+                        / (timestamp - previous.getTimestamp());
+            }
+            return new ProcessResourceUsage(pid, timestamp, cpuTimeMillis, cpuLoad, residentMemoryBytes,
+                    descriptors == null ? -1 : descriptors.length, threads);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
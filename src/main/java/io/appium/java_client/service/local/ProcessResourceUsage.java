@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+/**
+ * The sample of resources which are used by the process of the local appium server.
+ * See {@link AppiumDriverLocalService#getResourceUsage()}
+ */
+public final class ProcessResourceUsage {
+    private final int pid;
+    private final long timestamp;
+    private final long cpuTimeMillis;
+    private final double cpuLoad;
+    private final long residentMemoryBytes;
+    private final int openFileDescriptors;
+    private final int threads;
+
+    ProcessResourceUsage(int pid, long timestamp, long cpuTimeMillis, double cpuLoad,
+                         long residentMemoryBytes, int openFileDescriptors, int threads) {
+        this.pid = pid;
+        this.timestamp = timestamp;
+        this.cpuTimeMillis = cpuTimeMillis;
+        this.cpuLoad = cpuLoad;
+        this.residentMemoryBytes = residentMemoryBytes;
+        this.openFileDescriptors = openFileDescriptors;
+        this.threads = threads;
+    }
+
+    public int getPid() {
+        return pid;
+    }
+
+    /**
+     * @return the time when the sample has been taken, as {@link System#currentTimeMillis()}
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return user and system CPU time which has been consumed by the process
+     */
+    public long getCpuTimeMillis() {
+        return cpuTimeMillis;
+    }
+
+    /**
+     * @return the share of one CPU which has been used since the previous sample (1.0 is
+     * one fully loaded CPU). -1 is returned if there is no previous sample.
+     */
+    public double getCpuLoad() {
+        return cpuLoad;
+    }
+
+    /**
+     * @return the resident set size of the process
+     */
+    public long getResidentMemoryBytes() {
+        return residentMemoryBytes;
+    }
+
+    public int getOpenFileDescriptors() {
+        return openFileDescriptors;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        return "pid: " + pid + ", cpu time: " + cpuTimeMillis + " ms, cpu load: "
+                + String.format("%.2f", cpuLoad) + ", rss: " + residentMemoryBytes / 1024
+                + " KB, open files: " + openFileDescriptors + ", threads: " + threads;
+    }
+}
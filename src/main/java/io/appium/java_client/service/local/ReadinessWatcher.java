@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Waits for the line of the server output which reports that the server is listening.
+ */
+class ReadinessWatcher {
+    private final Pattern pattern;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean isMatched;
+    private volatile long matchedAt;
+
+    ReadinessWatcher(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    boolean isWaiting() {
+        return finished.getCount() > 0;
+    }
+
+    void onLine(String line) {
+        if (isWaiting() && pattern.matcher(line).find()) {
+            matchedAt = System.nanoTime();
+            isMatched = true;
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Is called when the output is finished. There is no sense to wait further.
+     */
+    void onEnd() {
+        finished.countDown();
+    }
+
+    /**
+     * @return true if the line has been found. false is returned if the time is out
+     * or the output is finished.
+     */
+    boolean await(long time, TimeUnit timeUnit) throws InterruptedException {
+        finished.await(time, timeUnit);
+        return isMatched;
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} when the line has been found
+     */
+    long getMatchedAt() {
+        return matchedAt;
+    }
+}
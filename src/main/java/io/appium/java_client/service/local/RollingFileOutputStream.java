@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes to the file until its size exceeds the limit. Then the file is renamed
+ * to file.1 (file.1 to file.2 and so on, the oldest file is removed) and a new file is started.
+ * It is supposed that whole lines are written by one call.
+ */
+class RollingFileOutputStream extends OutputStream {
+    private final File file;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private OutputStream current;
+    private long currentSize;
+
+    RollingFileOutputStream(File file, long maxFileSize, int maxFiles) {
+        this.file = file.getAbsoluteFile();
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+    }
+
+    private void open() throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        currentSize = file.length();
+        current = new FileOutputStream(file, true);
+    }
+
+    private void roll() throws IOException {
+        current.close();
+        current = null;
+        new File(file.getPath() + "." + (maxFiles - 1)).delete();
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            new File(file.getPath() + "." + i).renameTo(new File(file.getPath() + "." + (i + 1)));
+        }
+        if (maxFiles > 1) {
+            file.renameTo(new File(file.getPath() + ".1"));
+        } else {
+            file.delete();
+        }
+        open();
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        if (current == null) {
+            open();
+        }
+        if (currentSize > 0 && currentSize + length > maxFileSize) {
+            roll();
+        }
+        current.write(bytes, offset, length);
+        currentSize += length;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+}
@@ -25,12 +25,22 @@ enum Scripts {
     ;
     private static final String RESOURCE_FOLDER = "/scripts/";
     private final String script;
+    //the script is extracted once per JVM
+    private File extractedFile;
 
     Scripts(String script) {
         this.script = script;
     }
 
-    public File getScriptFile() {
+    public synchronized File getScriptFile() {
+        if (extractedFile == null || !extractedFile.exists()) {
+            extractedFile = extractScriptFile();
+            extractedFile.deleteOnExit();
+        }
+        return extractedFile;
+    }
+
+    private File extractScriptFile() {
         InputStream inputStream = getClass().getResourceAsStream(RESOURCE_FOLDER + this.script);
         byte[] bytes;
         try {
@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import java.util.regex.Pattern;
+
+/**
+ * Levels of appium server log lines. See {@link ServerLogOptions#withMinimumLevel(ServerLogLevel)}
+ */
+public enum ServerLogLevel {
+    DEBUG, INFO, WARN, ERROR;
+
+    private static final Pattern COLOR_CODES = Pattern.compile("\\u001B\\[[;\\d]*m");
+
+    /**
+     * Detects the level by the prefix of the line. E.g. "[debug] [ADB] ..." or "info: ..."
+     * Lines without a known prefix are considered as {@link #INFO}.
+     *
+     * @param line is the line of the server output
+     * @return the detected level
+     */
+    static ServerLogLevel of(String line) {
+        String prefix = COLOR_CODES.matcher(line.length() > 64 ? line.substring(0, 64) : line).replaceAll("")
+                .trim().toLowerCase();
+        for (ServerLogLevel level: values()) {
+            String name = level.name().toLowerCase();
+            if (prefix.startsWith("[" + name + "]") || prefix.startsWith(name + ":")) {
+                return level;
+            }
+        }
+        return INFO;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import java.io.File;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Defines how the output of the local appium server is handled. The output is read
+ * from the process without delays and is put into a bounded buffer of lines. Lines are written
+ * to the console, to added streams and to the rolling file by a separate thread, so a slow
+ * consumer doesn't stall the server. By default the buffer keeps 10000 lines and the server
+ * waits when it is full, all lines are printed to the console and the last 64 KB of the output
+ * are kept for {@link AppiumDriverLocalService#getStdOut()}.
+ */
+public class ServerLogOptions {
+
+    /**
+     * What happens when the buffer of lines is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The reading of the server output is paused until there is free space.
+         * The server may be slowed down but nothing is lost.
+         */
+        BLOCK,
+        /**
+         * New lines are dropped.
+         */
+        DROP_NEWEST,
+        /**
+         * The oldest lines in the buffer are dropped.
+         */
+        DROP_OLDEST
+    }
+
+    private int bufferCapacity = 10000;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private ServerLogLevel minimumLevel = ServerLogLevel.DEBUG;
+    private boolean isConsoleOutput = true;
+    private File rollingFile;
+    private long maxFileSize;
+    private int maxFiles;
+    private int recentOutputCapacity = 64 * 1024;
+
+    /**
+     * @param lines is the max count of lines which are waiting to be written
+     * @return self-reference
+     */
+    public ServerLogOptions withBufferCapacity(int lines) {
+        checkArgument(lines > 0, "The capacity should be positive");
+        this.bufferCapacity = lines;
+        return this;
+    }
+
+    /**
+     * @param overflowPolicy defines what happens when the buffer is full
+     * @return self-reference
+     */
+    public ServerLogOptions withOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = checkNotNull(overflowPolicy, "overflowPolicy parameter is NULL!");
+        return this;
+    }
+
+    /**
+     * @param minimumLevel lines of lower levels are dropped. Lines of a stack trace
+     *                     have the level of the line they follow.
+     * @return self-reference
+     */
+    public ServerLogOptions withMinimumLevel(ServerLogLevel minimumLevel) {
+        this.minimumLevel = checkNotNull(minimumLevel, "minimumLevel parameter is NULL!");
+        return this;
+    }
+
+    /**
+     * @param isConsoleOutput is false if the output shouldn't be printed to System.out
+     * @return self-reference
+     */
+    public ServerLogOptions withConsoleOutput(boolean isConsoleOutput) {
+        this.isConsoleOutput = isConsoleOutput;
+        return this;
+    }
+
+    /**
+     * @param file is the file which the output is written to. When its size exceeds
+     *             the given max size, it is renamed to file.1 (file.1 to file.2 and so on)
+     *             and a new file is started.
+     * @param maxFileSize is the max size of one file in bytes
+     * @param maxFiles is the max count of files including the current one
+     * @return self-reference
+     */
+    public ServerLogOptions withRollingFile(File file, long maxFileSize, int maxFiles) {
+        checkArgument(maxFileSize > 0, "The max file size should be positive");
+        checkArgument(maxFiles > 0, "The max count of files should be positive");
+        this.rollingFile = checkNotNull(file, "file parameter is NULL!");
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        return this;
+    }
+
+    /**
+     * @param bytes is how many last bytes of the output are kept in memory.
+     *              See {@link AppiumDriverLocalService#getStdOut()}
+     * @return self-reference
+     */
+    public ServerLogOptions withRecentOutputCapacity(int bytes) {
+        checkArgument(bytes >= 0, "The capacity should not be negative");
+        this.recentOutputCapacity = bytes;
+        return this;
+    }
+
+    int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    ServerLogLevel getMinimumLevel() {
+        return minimumLevel;
+    }
+
+    boolean isConsoleOutput() {
+        return isConsoleOutput;
+    }
+
+    File getRollingFile() {
+        return rollingFile;
+    }
+
+    long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    int getMaxFiles() {
+        return maxFiles;
+    }
+
+    int getRecentOutputCapacity() {
+        return recentOutputCapacity;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import org.openqa.selenium.os.ProcessUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The process of the local appium server. Its output is read by a daemon thread
+ * and is passed to {@link AsyncLogOutputStream}, so the server is never stalled by
+ * a slow output consumer (unless {@link ServerLogOptions.OverflowPolicy#BLOCK} is used).
+ * Only the last bytes of the output are kept in memory.
+ */
+class ServerProcess {
+    interface ExitListener {
+        void onExit(ServerProcess process);
+    }
+
+    private static final long OUTPUT_READING_TIMEOUT_MS = 5000;
+    //Process#destroyForcibly() sends SIGKILL. It appeared in Java 8 while the client is built for
+    //and runs on Java 7 too, so it is not called directly and it is looked up once. NULL means Java 7:
+    //ProcessUtils#killProcess(Process) is used then, which only sends SIGTERM and waits for 10 seconds
+    private static final Method DESTROY_FORCIBLY = getDestroyForcibly();
+
+    private final Process process;
+    private final TailOutputStream recentOutput;
+    private final Thread outputReader;
+    private final int pid;
+    private volatile long firstOutputAt;
+
+    ServerProcess(List<String> command, Map<String, String> environment, OutputStream output,
+                  ServerLogOptions options, ReadinessWatcher readinessWatcher,
+                  final ExitListener exitListener) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+        builder.environment().putAll(environment);
+        process = builder.start();
+        process.getOutputStream().close();
+        pid = ProcessResourceSampler.getPid(process);
+        recentOutput = new TailOutputStream(options.getRecentOutputCapacity());
+
+        final InputStream input = process.getInputStream();
+        final AsyncLogOutputStream log = new AsyncLogOutputStream(output, options, readinessWatcher);
+        outputReader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                byte[] buffer = new byte[8192];
+                try {
+                    int read;
+                    while ((read = input.read(buffer)) != -1) {
+                        if (firstOutputAt == 0) {
+                            firstOutputAt = System.nanoTime();
+                        }
+                        recentOutput.write(buffer, 0, read);
+                        log.write(buffer, 0, read);
+                    }
+                } catch (IOException ignored) {
+                    //the process has been destroyed
+                } finally {
+                    try {
+                        log.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+
+                try {
+                    process.waitFor();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                exitListener.onExit(ServerProcess.this);
+            }
+        }, "appium-server-output-reader");
+        outputReader.setDaemon(true);
+        outputReader.start();
+    }
+
+    boolean isRunning() {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} when the first output has been read.
+     * 0 is returned if there was no output yet.
+     */
+    long getFirstOutputAt() {
+        return firstOutputAt;
+    }
+
+    /**
+     * @return the id of the process or -1 if it can't be found out
+     */
+    int getPid() {
+        return pid;
+    }
+
+    /**
+     * @return the last bytes of the output
+     */
+    String getRecentOutput() {
+        return recentOutput.toString();
+    }
+
+    /**
+     * Destroys the process (forcibly if it doesn't exit in time) and waits
+     * until the rest of its output is written.
+     */
+    void destroy() {
+        if (isRunning()) {
+            ProcessUtils.killProcess(process);
+        }
+        try {
+            outputReader.join(OUTPUT_READING_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Asks the process to exit and kills it forcibly if it doesn't exit within the half
+     * of the given time. The rest of the time is given to the writing of the remaining output.
+     *
+     * @param timeoutMs is the max time of destroying in milliseconds
+     */
+    void destroy(long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        if (isRunning()) {
+            process.destroy();
+            long gracefulDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs / 2);
+            try {
+                while (isRunning() && System.nanoTime() < gracefulDeadline) {
+                    Thread.sleep(20);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (isRunning()) {
+                destroyForcibly();
+            }
+        }
+        try {
+            outputReader.join(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void destroyForcibly() {
+        if (DESTROY_FORCIBLY != null) {
+            try {
+                DESTROY_FORCIBLY.invoke(process);
+                return;
+            } catch (ReflectiveOperationException ignored) {
+                //the process is killed by the utility below
+            }
+        }
+        ProcessUtils.killProcess(process);
+    }
+
+    private static Method getDestroyForcibly() {
+        try {
+            return Process.class.getMethod("destroyForcibly");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
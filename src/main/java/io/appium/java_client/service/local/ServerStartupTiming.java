@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The breakdown of the last start of the local appium server. All values are in milliseconds
+ * and are measured from the beginning of {@link AppiumDriverLocalService#start()}.
+ */
+public final class ServerStartupTiming {
+    private final long startedAt;
+    private final long spawnedAt;
+    private final long firstOutputAt;
+    private final long listeningAt;
+    private final long firstStatusAt;
+
+    ServerStartupTiming(long startedAt, long spawnedAt, long firstOutputAt,
+                        long listeningAt, long firstStatusAt) {
+        this.startedAt = startedAt;
+        this.spawnedAt = spawnedAt;
+        this.firstOutputAt = firstOutputAt;
+        this.listeningAt = listeningAt;
+        this.firstStatusAt = firstStatusAt;
+    }
+
+    private long since(long nanoTime) {
+        if (nanoTime == 0) {
+            return -1;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(nanoTime - startedAt);
+    }
+
+    /**
+     * @return the time which has been spent to spawn the Node.js process
+     */
+    public long getSpawnTime() {
+        return since(spawnedAt);
+    }
+
+    /**
+     * @return the time when the server printed its first output (Node.js has booted).
+     * -1 is returned if there was no output.
+     */
+    public long getBootTime() {
+        return since(firstOutputAt);
+    }
+
+    /**
+     * @return the time when the server reported that it was listening.
+     * -1 is returned if readiness is not detected by the output or the line has not been found.
+     * See {@link AppiumServiceBuilder#withReadinessPattern(java.util.regex.Pattern)}
+     */
+    public long getListenTime() {
+        return since(listeningAt);
+    }
+
+    /**
+     * @return the time when the server responded to the first /status request
+     */
+    public long getFirstStatusTime() {
+        return since(firstStatusAt);
+    }
+
+    @Override
+    public String toString() {
+        return "spawn: " + getSpawnTime() + " ms, boot: " + getBootTime() + " ms, listen: "
+                + getListenTime() + " ms, first status: " + getFirstStatusTime() + " ms";
+    }
+}
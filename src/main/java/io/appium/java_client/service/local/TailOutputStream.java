@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.appium.java_client.service.local;
+
+import com.google.common.base.Charsets;
+
+import java.io.OutputStream;
+
+/**
+ * Keeps the given count of last written bytes.
+ */
+class TailOutputStream extends OutputStream {
+    private final byte[] buffer;
+    private int position;
+    private boolean isFull;
+
+    TailOutputStream(int capacity) {
+        buffer = new byte[capacity];
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        if (buffer.length == 0) {
+            return;
+        }
+        buffer[position] = (byte) b;
+        position = (position + 1) % buffer.length;
+        isFull = isFull || position == 0;
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        if (buffer.length == 0) {
+            return;
+        }
+        //only the last bytes matter
+        if (length > buffer.length) {
+            offset += length - buffer.length;
+            length = buffer.length;
+        }
+        int firstPart = Math.min(length, buffer.length - position);
+        System.arraycopy(bytes, offset, buffer, position, firstPart);
+        System.arraycopy(bytes, offset + firstPart, buffer, 0, length - firstPart);
+        isFull = isFull || position + length >= buffer.length;
+        position = (position + length) % buffer.length;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (!isFull) {
+            return new String(buffer, 0, position, Charsets.UTF_8);
+        }
+        byte[] result = new byte[buffer.length];
+        System.arraycopy(buffer, position, result, 0, buffer.length - position);
+        System.arraycopy(buffer, 0, result, buffer.length - position, position);
+        return new String(result, Charsets.UTF_8);
+    }
+}
@@ -78,6 +78,18 @@ public class ContextTest {
     assertEquals(driver.getContext(), "WEBVIEW_1");
   }
 
+  @Test
+  public void testSwitchFixedContext() {
+    driver.fixContext("NATIVE_APP");
+    try {
+      assertEquals("NATIVE_APP", driver.getContext());
+      driver.context("WEBVIEW_1");
+      assertEquals("WEBVIEW_1", driver.getContext());
+    } finally {
+      driver.unfixContext();
+    }
+  }
+
   @Test(expected = NoSuchContextException.class)
   public void testContextError() {
     driver.context("Planet of the Ape-ium");
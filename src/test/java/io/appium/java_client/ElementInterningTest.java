@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.MobilePlatform;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * These tests use a local HTTP server which pretends to be appium. It always finds
+ * elements "3" and "4". Neither appium nor a device is needed.
+ */
+public class ElementInterningTest {
+
+    private HttpServer server;
+    private DesiredCapabilities capabilities;
+    private RestartableDriver driver;
+
+    //sessions are started again and element JSON is converted without requests to the server here
+    private static class RestartableDriver extends AndroidDriver<WebElement> {
+        RestartableDriver(URL remoteAddress, Capabilities desiredCapabilities) {
+            super(remoteAddress, desiredCapabilities);
+        }
+
+        void restartSession(Capabilities desiredCapabilities) {
+            startSession(desiredCapabilities);
+        }
+
+        Object convert(Object json) {
+            return getElementConverter().apply(json);
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String path = exchange.getRequestURI().getPath();
+                String body = "{\"sessionId\":\"1\",\"status\":0,\"value\":null}";
+                if ("/wd/hub/session".equals(path)) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"platformName\":\"Android\"}}";
+                } else if (path.endsWith("/context")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":\"NATIVE_APP\"}";
+                } else if (path.endsWith("/elements")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":[{\"ELEMENT\":\"3\"},{\"ELEMENT\":\"4\"}]}";
+                } else if (path.endsWith("/element")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"ELEMENT\":\"3\"}}";
+                } else if (path.endsWith("/execute")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"found\":[{\"ELEMENT\":\"4\"}]}}";
+                }
+                byte[] bytes = body.getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(bytes);
+                }
+            }
+        });
+        server.start();
+
+        capabilities = new DesiredCapabilities();
+        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+        driver = new RestartableDriver(new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub"),
+                capabilities);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void checkThatElementsAreNotInternedByDefault() {
+        assertNotSame(driver.findElement(By.id("some_id")), driver.findElement(By.id("some_id")));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void checkThatTheSameElementInstanceIsReturnedForTheSameId() {
+        driver.setElementInterning(true);
+        List<WebElement> elements = driver.findElements(By.id("some_id"));
+
+        assertSame(elements.get(0), driver.findElement(By.id("some_id")));
+        assertSame(elements.get(1), driver.findElements(By.id("some_id")).get(1));
+        Map<String, List<WebElement>> result = (Map<String, List<WebElement>>) driver.executeScript("script");
+        assertSame(elements.get(1), result.get("found").get(0));
+
+        driver.setElementInterning(false);
+        assertNotSame(elements.get(0), driver.findElement(By.id("some_id")));
+    }
+
+    @Test
+    public void checkThatInternedElementsAreForgottenByNewSession() {
+        driver.setElementInterning(true);
+        WebElement element = driver.findElement(By.id("some_id"));
+
+        driver.restartSession(capabilities);
+        WebElement elementOfNewSession = driver.findElement(By.id("some_id"));
+        assertNotSame(element, elementOfNewSession);
+        //interning itself is kept
+        assertSame(elementOfNewSession, driver.findElement(By.id("some_id")));
+    }
+
+    @Test
+    public void checkThatInternedElementsAreForgottenByQuit() {
+        driver.setElementInterning(true);
+        WebElement element = driver.findElement(By.id("some_id"));
+        assertSame(element, driver.convert(ImmutableMap.of("ELEMENT", "3")));
+
+        driver.quit();
+        Object converted = driver.convert(ImmutableMap.of("ELEMENT", "3"));
+        assertNotSame(element, converted);
+        assertTrue(converted instanceof MobileElement);
+    }
+}
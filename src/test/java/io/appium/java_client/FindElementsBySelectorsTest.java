@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.MobilePlatform;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * These tests use a local HTTP server which pretends to be appium.
+ * Neither appium nor a device is needed.
+ */
+public class FindElementsBySelectorsTest {
+
+    private static final String COMPLEX_FIND_PATH = "/wd/hub/session/1/appium/app/complex_find";
+    private static final String FIND_ELEMENTS_PATH = "/wd/hub/session/1/elements";
+    private static final List<By> SELECTORS = Arrays.asList(By.id("id1"), By.className("class1"));
+
+    private HttpServer server;
+    private final ConcurrentMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    //the response of the server to complex_find requests
+    private volatile int complexFindHttpStatus;
+    private volatile String complexFindResponse;
+    private AndroidDriver<WebElement> driver;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String path = exchange.getRequestURI().getPath();
+                requestCounts.putIfAbsent(path, new AtomicInteger());
+                requestCounts.get(path).incrementAndGet();
+
+                int httpStatus = 200;
+                String body = "{\"sessionId\":\"1\",\"status\":0,\"value\":null}";
+                if ("/wd/hub/session".equals(path)) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"platformName\":\"Android\"}}";
+                } else if (COMPLEX_FIND_PATH.equals(path)) {
+                    httpStatus = complexFindHttpStatus;
+                    body = complexFindResponse;
+                } else if (FIND_ELEMENTS_PATH.equals(path)) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":[{\"ELEMENT\":\"3\"}]}";
+                }
+                byte[] bytes = body.getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(httpStatus, bytes.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(bytes);
+                }
+            }
+        });
+        server.start();
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+        driver = new AndroidDriver<>(new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub"),
+                capabilities);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private int getRequestCount(String path) {
+        AtomicInteger count = requestCounts.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    private void findTwice(int expectedSize) {
+        for (int i = 0; i < 2; i++) {
+            List<List<WebElement>> found = driver.findElementsBySelectors(SELECTORS);
+            assertEquals(2, found.size());
+            assertEquals(expectedSize, found.get(0).size());
+            assertEquals(expectedSize, found.get(1).size());
+        }
+    }
+
+    @Test
+    public void checkThatSelectorsAreSentByOneRequestWhenTheServerSupportsIt() {
+        complexFindHttpStatus = 200;
+        complexFindResponse = "{\"sessionId\":\"1\",\"status\":0,\"value\":"
+                + "[[{\"ELEMENT\":\"1\"},{\"ELEMENT\":\"2\"}],[{\"ELEMENT\":\"3\"},{\"ELEMENT\":\"4\"}]]}";
+        findTwice(2);
+        assertEquals(2, getRequestCount(COMPLEX_FIND_PATH));
+        assertEquals(0, getRequestCount(FIND_ELEMENTS_PATH));
+    }
+
+    @Test
+    public void checkThatUnknownCommandIsNotSentAgain() {
+        complexFindHttpStatus = 404;
+        complexFindResponse = "{\"sessionId\":\"1\",\"status\":9,\"value\":{\"message\":\"unknown command\"}}";
+        findTwice(1);
+        assertEquals(1, getRequestCount(COMPLEX_FIND_PATH));
+        assertEquals(4, getRequestCount(FIND_ELEMENTS_PATH));
+    }
+
+    @Test
+    public void checkThatGenericErrorIsNotSentAgain() {
+        //Appium 1.x servers respond so to the request which they don't implement
+        complexFindHttpStatus = 500;
+        complexFindResponse = "{\"sessionId\":\"1\",\"status\":13,\"value\":{\"message\":\"some error\"}}";
+        findTwice(1);
+        assertEquals(1, getRequestCount(COMPLEX_FIND_PATH));
+        assertEquals(4, getRequestCount(FIND_ELEMENTS_PATH));
+    }
+}
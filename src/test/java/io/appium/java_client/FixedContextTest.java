@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.MobilePlatform;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * These tests use a local HTTP server which pretends to be appium.
+ * Neither appium nor a device is needed.
+ */
+public class FixedContextTest {
+
+    private HttpServer server;
+    //GET requests of the current context
+    private final AtomicInteger contextRequests = new AtomicInteger();
+    private AndroidDriver<WebElement> driver;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String path = exchange.getRequestURI().getPath();
+                String body = "{\"sessionId\":\"1\",\"status\":0,\"value\":null}";
+                if ("/wd/hub/session".equals(path)) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"platformName\":\"Android\"}}";
+                } else if (path.endsWith("/context") && "GET".equals(exchange.getRequestMethod())) {
+                    contextRequests.incrementAndGet();
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":\"NATIVE_APP\"}";
+                }
+                byte[] bytes = body.getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(bytes);
+                }
+            }
+        });
+        server.start();
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+        driver = new AndroidDriver<>(new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub"),
+                capabilities);
+        contextRequests.set(0);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    //calls every command which resets the known context and checks the context after each of them
+    private void checkContextAfterAppCommands(String expectedContext) {
+        driver.resetApp();
+        assertEquals(expectedContext, driver.getContext());
+        driver.launchApp();
+        assertEquals(expectedContext, driver.getContext());
+        driver.closeApp();
+        assertEquals(expectedContext, driver.getContext());
+        driver.runAppInBackground(1);
+        assertEquals(expectedContext, driver.getContext());
+        driver.startActivity("io.appium.android.apis", ".ApiDemos");
+        assertEquals(expectedContext, driver.getContext());
+    }
+
+    @Test
+    public void checkThatFixedContextIsNotRequested() {
+        driver.fixContext("WEBVIEW_1");
+        try {
+            checkContextAfterAppCommands("WEBVIEW_1");
+            assertEquals(0, contextRequests.get());
+
+            driver.context("NATIVE_APP");
+            checkContextAfterAppCommands("NATIVE_APP");
+            assertEquals(0, contextRequests.get());
+        } finally {
+            driver.unfixContext();
+        }
+    }
+
+    @Test
+    public void checkThatContextIsRequestedAgainAfterItIsUnfixed() {
+        driver.fixContext("WEBVIEW_1");
+        try {
+            assertEquals("WEBVIEW_1", driver.getContext());
+        } finally {
+            driver.unfixContext();
+        }
+        //the known context is kept until it is reset
+        assertEquals("WEBVIEW_1", driver.getContext());
+        assertEquals(0, contextRequests.get());
+
+        checkContextAfterAppCommands("NATIVE_APP");
+        assertEquals(5, contextRequests.get());
+    }
+}
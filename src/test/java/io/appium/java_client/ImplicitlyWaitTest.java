@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.MobilePlatform;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.support.PageFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * These tests use a local HTTP server which pretends to be appium.
+ * Neither appium nor a device is needed.
+ */
+public class ImplicitlyWaitTest {
+
+    private static final String TIMEOUTS_PATH = "/wd/hub/session/1/timeouts";
+
+    private HttpServer server;
+    //bodies of requests which have changed time outs
+    private final List<String> timeoutRequests = new CopyOnWriteArrayList<>();
+    private AndroidDriver<WebElement> driver;
+
+    @AndroidFindBy(id = "some_id")
+    private WebElement element;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String path = exchange.getRequestURI().getPath();
+                if (TIMEOUTS_PATH.equals(path)) {
+                    timeoutRequests.add(IOUtils.toString(exchange.getRequestBody(), Charsets.UTF_8.name()));
+                }
+
+                String body = "{\"sessionId\":\"1\",\"status\":0,\"value\":null}";
+                if (TIMEOUTS_PATH.equals(path) && timeoutRequests.get(timeoutRequests.size() - 1).contains("-")) {
+                    body = "{\"sessionId\":\"1\",\"status\":13,\"value\":{\"message\":\"invalid value\"}}";
+                } else if ("/wd/hub/session".equals(path)) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"platformName\":\"Android\"}}";
+                } else if (path.endsWith("/context")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":\"NATIVE_APP\"}";
+                } else if (path.endsWith("/elements")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":[{\"ELEMENT\":\"3\"}]}";
+                } else if (path.endsWith("/element")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"ELEMENT\":\"3\"}}";
+                }
+                byte[] bytes = body.getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(bytes);
+                }
+            }
+        });
+        server.start();
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+        driver = new AndroidDriver<>(new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub"),
+                capabilities);
+        PageFactory.initElements(new AppiumFieldDecorator(driver, 5, TimeUnit.SECONDS), this);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void checkThatImplicitlyWaitOfTheUserIsSentImmediately() {
+        driver.manage().timeouts().implicitlyWait(5, TimeUnit.SECONDS);
+        assertEquals(1, timeoutRequests.size());
+        assertTrue(timeoutRequests.get(0).contains("\"ms\":5000"));
+        assertEquals(Long.valueOf(5000), driver.getImplicitlyWaitMillis());
+    }
+
+    @Test
+    public void checkThatInvalidImplicitlyWaitFailsImmediately() {
+        try {
+            driver.manage().timeouts().implicitlyWait(-1, TimeUnit.SECONDS);
+        } catch (WebDriverException expected) {
+            assertEquals(null, driver.getImplicitlyWaitMillis());
+            //the failed value is not sent again by lookups
+            driver.findElement(By.id("some_id"));
+            assertEquals(1, timeoutRequests.size());
+            return;
+        }
+        throw new AssertionError("The invalid value is expected to be rejected");
+    }
+
+    @Test
+    public void checkThatImplicitlyWaitIsNotChangedBetweenLookupsOfLocators() {
+        driver.manage().timeouts().implicitlyWait(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 5; i++) {
+            element.getText();
+        }
+        //zero is set once before the first lookup
+        assertEquals(2, timeoutRequests.size());
+        assertTrue(timeoutRequests.get(1).contains("\"ms\":0"));
+        assertEquals(Long.valueOf(0), driver.getImplicitlyWaitMillis());
+    }
+
+    @Test
+    public void checkThatImplicitlyWaitOfTheLocatorIsRestoredByTheLookupOfTheUser() {
+        driver.manage().timeouts().implicitlyWait(5, TimeUnit.SECONDS);
+        element.getText();
+        driver.findElement(By.id("some_id"));
+        driver.findElement(By.id("some_id"));
+
+        assertEquals(3, timeoutRequests.size());
+        assertTrue(timeoutRequests.get(2).contains("\"ms\":5000"));
+        assertEquals(Long.valueOf(5000), driver.getImplicitlyWaitMillis());
+
+        element.getText();
+        assertEquals(4, timeoutRequests.size());
+        assertTrue(timeoutRequests.get(3).contains("\"ms\":0"));
+    }
+}
@@ -17,8 +17,12 @@
 package io.appium.java_client.android;
 
 import io.appium.java_client.AppiumSetting;
+import io.appium.java_client.MobileBy;
+import io.appium.java_client.MobileCommand;
 import io.appium.java_client.NetworkConnectionSetting;
+import io.appium.java_client.remote.AppiumCommandExecutor;
 import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.metrics.CommandMetrics;
 import io.appium.java_client.service.local.AppiumDriverLocalService;
 import org.apache.commons.codec.binary.Base64;
 import org.junit.After;
@@ -26,10 +30,16 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
@@ -130,6 +140,49 @@ public class AndroidDriverTest {
     assertEquals(".ApiDemos", driver.currentActivity());
   }
 
+  @Test
+  public void elementInterningTest() {
+    driver.setElementInterning(true);
+    try {
+      WebElement element = driver.findElementById("android:id/text1");
+      assertTrue(element == driver.findElementById("android:id/text1"));
+    }
+    finally {
+      driver.setElementInterning(false);
+    }
+  }
+
+  @Test
+  public void findElementsBySelectorsTest() {
+    List<? extends List<? extends WebElement>> found = driver.findElementsBySelectors(Arrays.asList(By.id("android:id/text1"),
+        MobileBy.AccessibilityId("Graphics"), By.id("android:id/fake_id")));
+    assertEquals(3, found.size());
+    assertEquals(driver.findElementsById("android:id/text1").size(), found.get(0).size());
+    assertEquals(1, found.get(1).size());
+    assertEquals(0, found.get(2).size());
+
+    //elements are found either by one complexFind request or selector by selector, not both.
+    //Appium 1.x has rejected complexFind by the first call, so it is not sent again
+    CommandMetrics metrics = ((AppiumCommandExecutor) driver.getCommandExecutor()).getMetrics();
+    long complexFinds = metrics.getCount(MobileCommand.COMPLEX_FIND);
+    long finds = metrics.getCount(DriverCommand.FIND_ELEMENTS);
+    driver.findElementsBySelectors(Arrays.asList(By.id("android:id/text1"),
+        MobileBy.AccessibilityId("Graphics"), By.id("android:id/fake_id")));
+    long sentComplexFinds = metrics.getCount(MobileCommand.COMPLEX_FIND) - complexFinds;
+    long sentFinds = metrics.getCount(DriverCommand.FIND_ELEMENTS) - finds;
+    assertTrue((sentComplexFinds == 1 && sentFinds == 0) || (sentComplexFinds == 0 && sentFinds == 3));
+  }
+
+  @Test
+  public void commandMetricsTest() {
+    CommandMetrics metrics = ((AppiumCommandExecutor) driver.getCommandExecutor()).getMetrics();
+    long count = metrics.getCount(DriverCommand.FIND_ELEMENTS);
+    driver.findElementsById("android:id/text1");
+    assertEquals(count + 1, metrics.getCount(DriverCommand.FIND_ELEMENTS));
+    assertTrue(metrics.getResponseBytes(DriverCommand.FIND_ELEMENTS) > 0);
+    assertTrue(metrics.getMaxLatencyMicros(DriverCommand.FIND_ELEMENTS) > 0);
+  }
+
   @Test
   public void pushFileTest() {
     byte[] data = Base64.encodeBase64("The eventual code is no more than the deposit of your understanding. ~E. W. Dijkstra".getBytes());
@@ -139,6 +192,24 @@ public class AndroidDriverTest {
     assertEquals("The eventual code is no more than the deposit of your understanding. ~E. W. Dijkstra", returnDataDecoded);
   }
 
+  @Test
+  public void pullFileToStreamTest() {
+    byte[] data = Base64.encodeBase64("The eventual code is no more than the deposit of your understanding. ~E. W. Dijkstra".getBytes());
+    driver.pushFile("/data/local/tmp/remote.txt", data);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    driver.pullFile("/data/local/tmp/remote.txt", outputStream);
+    String returnDataDecoded = new String(Base64.decodeBase64(outputStream.toByteArray()));
+    assertEquals("The eventual code is no more than the deposit of your understanding. ~E. W. Dijkstra", returnDataDecoded);
+  }
+
+  @Test
+  public void pushFileFromStreamTest() {
+    byte[] data = "The eventual code is no more than the deposit of your understanding. ~E. W. Dijkstra".getBytes();
+    driver.pushFile("/data/local/tmp/remote2.txt", new ByteArrayInputStream(data));
+    byte[] returnData = driver.pullFile("/data/local/tmp/remote2.txt");
+    assertEquals("The eventual code is no more than the deposit of your understanding. ~E. W. Dijkstra", new String(returnData));
+  }
+
   @Test
   public void networkConnectionTest() {
     NetworkConnectionSetting networkConnection = new NetworkConnectionSetting(false, true, true);
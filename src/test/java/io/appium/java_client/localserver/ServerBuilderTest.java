@@ -17,17 +17,37 @@
 package io.appium.java_client.localserver;
 
 import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumDriverLocalServiceGroup;
+import io.appium.java_client.service.local.AppiumDriverLocalServicePool;
+import io.appium.java_client.service.local.AppiumServerHasNotBeenStartedLocallyException;
+import io.appium.java_client.service.local.AppiumServiceRestartListener;
+import io.appium.java_client.service.local.AppiumServiceState;
+import io.appium.java_client.service.local.AppiumServiceStateListener;
+import io.appium.java_client.service.local.AppiumServiceSupervisor;
+import io.appium.java_client.service.local.PortRangeAllocator;
+import io.appium.java_client.service.local.ProcessResourceUsage;
 import io.appium.java_client.service.local.AppiumServiceBuilder;
+import io.appium.java_client.service.local.ServerLogLevel;
+import io.appium.java_client.service.local.ServerLogOptions;
+import io.appium.java_client.service.local.ServerStartupTiming;
 import io.appium.java_client.service.local.flags.GeneralServerFlag;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.openqa.selenium.Platform;
 
 import java.io.*;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static junit.framework.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeNotNull;
 
 public class ServerBuilderTest {
 
@@ -210,4 +230,300 @@ public class ServerBuilderTest {
         assertTrue(!service3.isRunning());
         assertTrue(!service4.isRunning());
     }
+
+    @Test
+    public void checkThatPooledServicesAreReused() {
+        AppiumDriverLocalServicePool pool = new AppiumDriverLocalServicePool(new AppiumServiceBuilder(), 2);
+        try {
+            AppiumDriverLocalService service1 = pool.lease();
+            AppiumDriverLocalService service2 = pool.lease();
+            assertTrue(service1.isRunning());
+            assertTrue(service2.isRunning());
+            assertTrue(!service1.getUrl().equals(service2.getUrl()));
+
+            pool.release(service1);
+            assertEquals(service1, pool.lease());
+            assertTrue(service1.isRunning());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void checkThatLeaseFailsAtOnceWhenEveryPooledServiceHasFailed() {
+        File failingServer = new File("src/test/java/io/appium/java_client/localserver/failing_server.js");
+        AppiumDriverLocalServicePool pool = new AppiumDriverLocalServicePool(
+                new AppiumServiceBuilder().withAppiumJS(failingServer)
+                        .withReadinessPattern(AppiumServiceBuilder.LISTENER_STARTED_PATTERN), 2, 2, TimeUnit.MINUTES);
+        long start = System.currentTimeMillis();
+        try {
+            pool.lease();
+            throw new AssertionError("There is expected to be no started server");
+        } catch (AppiumServerHasNotBeenStartedLocallyException expected) {
+            //each server is started 3 times. Retries are delayed by 1 and 2 seconds
+            assertTrue(System.currentTimeMillis() - start < 30000);
+            assertTrue(expected.getCause() != null);
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void checkThatStateChangesAreReported() {
+        final List<AppiumServiceState> states = new CopyOnWriteArrayList<>();
+        AppiumDriverLocalService service = AppiumDriverLocalService.buildDefaultService();
+        service.addStateListener(new AppiumServiceStateListener() {
+            @Override
+            public void onStateChanged(AppiumDriverLocalService service, AppiumServiceState oldState,
+                                       AppiumServiceState newState) {
+                states.add(newState);
+            }
+        });
+        service.start();
+        assertEquals(AppiumServiceState.RUNNING, service.getState());
+        service.stop();
+        assertTrue(!service.isRunning());
+        assertEquals(Arrays.asList(AppiumServiceState.RUNNING, AppiumServiceState.STOPPED), states);
+    }
+
+    @Test
+    public void checkThatServerLogOptionsAreApplied() throws Exception {
+        File log = new File("target/rolling/server.log");
+        ServerLogOptions logOptions = new ServerLogOptions().withConsoleOutput(false)
+                .withMinimumLevel(ServerLogLevel.INFO)
+                .withRollingFile(log, 1024, 3)
+                .withRecentOutputCapacity(512);
+        AppiumDriverLocalService service = new AppiumServiceBuilder().withLogOptions(logOptions).build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service.addOutPutStream(output);
+        service.start();
+        try {
+            assertTrue(service.getStdOut().length() <= 512);
+        } finally {
+            service.stop();
+        }
+        assertTrue(output.size() > 0);
+        assertTrue(!output.toString().contains("[debug]"));
+        assertTrue(log.exists());
+        assertTrue(log.length() <= 1024);
+    }
+
+    @Test
+    public void checkThatReadinessIsDetectedByOutput() {
+        AppiumDriverLocalService service = new AppiumServiceBuilder()
+                .withReadinessPattern(AppiumServiceBuilder.LISTENER_STARTED_PATTERN).build();
+        service.start();
+        try {
+            assertTrue(service.isRunning());
+            ServerStartupTiming timing = service.getStartupTiming();
+            assertTrue(timing.getListenTime() >= timing.getBootTime());
+            assertTrue(timing.getFirstStatusTime() >= timing.getListenTime());
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test
+    public void checkThatStoppedServiceIsNotRestarted() throws Exception {
+        AppiumDriverLocalService service = AppiumDriverLocalService.buildDefaultService();
+        AppiumServiceSupervisor supervisor = new AppiumServiceSupervisor(service);
+        supervisor.withBackoff(100, 1000, TimeUnit.MILLISECONDS);
+        try {
+            service.start();
+            service.stop();
+            Thread.sleep(1000);
+            assertEquals(AppiumServiceState.STOPPED, service.getState());
+            assertEquals(0, supervisor.getRestartCount());
+        } finally {
+            supervisor.close();
+            service.stop();
+        }
+    }
+
+    private static void killServerProcess(AppiumDriverLocalService service) throws Exception {
+        ProcessResourceUsage usage = service.getResourceUsage();
+        assumeNotNull(usage);
+        Runtime.getRuntime().exec(new String[] {"kill", "-9", String.valueOf(usage.getPid())}).waitFor();
+    }
+
+    @Test
+    public void checkThatCrashedServiceIsRestartedWithBackoff() throws Exception {
+        final List<AppiumServiceState> states = new CopyOnWriteArrayList<>();
+        final BlockingQueue<Integer> restartedAttempts = new LinkedBlockingQueue<>();
+        AppiumDriverLocalService service = AppiumDriverLocalService.buildDefaultService();
+        service.addStateListener(new AppiumServiceStateListener() {
+            @Override
+            public void onStateChanged(AppiumDriverLocalService service, AppiumServiceState oldState,
+                                       AppiumServiceState newState) {
+                states.add(newState);
+            }
+        });
+        AppiumServiceSupervisor supervisor = new AppiumServiceSupervisor(service);
+        supervisor.withBackoff(1000, 30000, TimeUnit.MILLISECONDS);
+        //a failed listener must affect neither restarts nor other listeners
+        supervisor.addRestartListener(new AppiumServiceRestartListener() {
+            @Override
+            public void onRestarted(AppiumDriverLocalService service, int attempt) {
+                throw new IllegalStateException("a broken listener");
+            }
+
+            @Override
+            public void onRestartFailed(AppiumDriverLocalService service, int attempt, Throwable failure,
+                                        boolean willRetry) {
+                throw new IllegalStateException("a broken listener");
+            }
+        });
+        supervisor.addRestartListener(new AppiumServiceRestartListener() {
+            @Override
+            public void onRestarted(AppiumDriverLocalService service, int attempt) {
+                restartedAttempts.add(attempt);
+            }
+
+            @Override
+            public void onRestartFailed(AppiumDriverLocalService service, int attempt, Throwable failure,
+                                        boolean willRetry) {
+            }
+        });
+        try {
+            service.start();
+            long killedAt = System.currentTimeMillis();
+            killServerProcess(service);
+            assertEquals(Integer.valueOf(1), restartedAttempts.poll(2, TimeUnit.MINUTES));
+            assertTrue(System.currentTimeMillis() - killedAt >= 1000);
+            assertTrue(states.indexOf(AppiumServiceState.CRASHED) >= 0);
+            assertTrue(states.lastIndexOf(AppiumServiceState.RUNNING) > states.indexOf(AppiumServiceState.CRASHED));
+            assertTrue(service.isRunning());
+            assertEquals(1, supervisor.getRestartCount());
+
+            //the second crash happens soon after the restart, so the delay is doubled
+            killedAt = System.currentTimeMillis();
+            killServerProcess(service);
+            assertEquals(Integer.valueOf(2), restartedAttempts.poll(2, TimeUnit.MINUTES));
+            assertTrue(System.currentTimeMillis() - killedAt >= 2000);
+            assertEquals(2, supervisor.getRestartCount());
+        } finally {
+            supervisor.close();
+            service.stop();
+        }
+    }
+
+    @Test
+    public void checkThatServicesGetDifferentPortBlocks() {
+        AppiumServiceBuilder builder = new AppiumServiceBuilder()
+                .usingPortAllocator(new PortRangeAllocator(4800, 4807));
+        AppiumDriverLocalService service1 = builder.build();
+        AppiumDriverLocalService service2 = builder.build();
+        try {
+            service1.start();
+            service2.start();
+            assertTrue(service1.isRunning());
+            assertTrue(service2.isRunning());
+            assertTrue(!service1.getUrl().equals(service2.getUrl()));
+        } finally {
+            service1.stop();
+            service2.stop();
+        }
+    }
+
+    @Test
+    public void checkThatPortBlockOfServiceWhichHasNotBeenStartedIsReleasedByStop() {
+        //the range is one block
+        AppiumServiceBuilder builder = new AppiumServiceBuilder()
+                .usingPortAllocator(new PortRangeAllocator(4808, 4811));
+        AppiumDriverLocalService service1 = builder.build();
+        try {
+            builder.build().stop();
+            fail("The block is expected to be reserved by the built service");
+        } catch (IllegalStateException expected) {
+        } finally {
+            service1.stop();
+        }
+
+        AppiumDriverLocalService service2 = builder.build();
+        try {
+            service2.start();
+            assertTrue(service2.isRunning());
+        } finally {
+            service2.stop();
+        }
+    }
+
+    @Test
+    public void checkThatSessionsAreSpreadAcrossTheGroup() {
+        AppiumDriverLocalServiceGroup group = new AppiumDriverLocalServiceGroup(new AppiumServiceBuilder(), 2,
+                AppiumDriverLocalServiceGroup.BalancingStrategy.LEAST_ACTIVE_SESSIONS);
+        try {
+            AppiumDriverLocalService service1 = group.acquire();
+            AppiumDriverLocalService service2 = group.acquire();
+            assertTrue(service1 != service2);
+            assertEquals(1, group.getActiveSessions(service1));
+
+            group.release(service1);
+            group.release(service1);
+            assertEquals(0, group.getActiveSessions(service1));
+            assertEquals(service1, group.acquire());
+
+            //repeated releases don't affect other sessions of the server
+            group.release(service1);
+            AppiumDriverLocalServiceGroup.Lease lease = group.lease();
+            assertEquals(service1, lease.getService());
+            group.release(service1);
+            assertEquals(1, group.getActiveSessions(service1));
+            lease.release();
+            lease.release();
+            assertEquals(0, group.getActiveSessions(service1));
+            assertEquals(1, group.getActiveSessions(service2));
+        } finally {
+            group.close();
+        }
+    }
+
+    @Test
+    public void checkThatResourceUsageIsSampled() {
+        AppiumDriverLocalService service = AppiumDriverLocalService.buildDefaultService();
+        service.start();
+        try {
+            ProcessResourceUsage usage = service.getResourceUsage();
+            if (Platform.getCurrent().is(Platform.LINUX)) {
+                assertTrue(usage.getResidentMemoryBytes() > 0);
+                assertTrue(usage.getOpenFileDescriptors() > 0);
+            }
+        } finally {
+            service.stop();
+        }
+        assertEquals(null, service.getResourceUsage());
+    }
+
+    @Test
+    public void checkAbilityToStopFewServicesConcurrently() throws Exception {
+        //the last server ignores SIGTERM, so it is killed when the half of the time is out
+        File stubbornServer = new File("src/test/java/io/appium/java_client/localserver/stubborn_server.js");
+        List<AppiumDriverLocalService> services = Arrays.asList(
+                new AppiumServiceBuilder().usingAnyFreePort().build(),
+                new AppiumServiceBuilder().usingAnyFreePort().build(),
+                new AppiumServiceBuilder().withAppiumJS(stubbornServer)
+                        .withReadinessPattern(AppiumServiceBuilder.LISTENER_STARTED_PATTERN).usingAnyFreePort().build());
+        try {
+            for (AppiumDriverLocalService service: services) {
+                service.start();
+            }
+            ProcessResourceUsage stubbornUsage = services.get(2).getResourceUsage();
+
+            long start = System.currentTimeMillis();
+            assertTrue(AppiumDriverLocalService.stopAll(services, 6, TimeUnit.SECONDS));
+            long duration = System.currentTimeMillis() - start;
+            assertTrue(duration >= 3000);
+            assertTrue(duration < 8000);
+            for (AppiumDriverLocalService service: services) {
+                assertTrue(!service.isRunning());
+            }
+            if (stubbornUsage != null) {
+                assertTrue(!new File("/proc/" + stubbornUsage.getPid()).exists());
+            }
+        } finally {
+            for (AppiumDriverLocalService service: services) {
+                service.stop();
+            }
+        }
+    }
 }
@@ -0,0 +1,2 @@
+// Pretends to be the appium server which can't be started: it exits at once.
+process.exit(1);
@@ -0,0 +1,17 @@
+// Pretends to be the appium server which ignores SIGTERM, so it is stopped by SIGKILL only.
+// It answers every request as the status request.
+var http = require('http');
+
+var args = process.argv;
+var address = args[args.indexOf('--address') + 1];
+var port = parseInt(args[args.indexOf('--port') + 1], 10);
+
+process.on('SIGTERM', function () {
+});
+
+http.createServer(function (request, response) {
+    response.writeHead(200, {'Content-Type': 'application/json'});
+    response.end('{"status":0,"value":{}}');
+}).listen(port, address, function () {
+    console.log('info: Appium REST http interface listener started on ' + address + ':' + port);
+});
@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.pagefactory;
+
+import io.appium.java_client.remote.MobilePlatform;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that By-strategies are read from annotations once. Neither a driver nor a server is needed.
+ */
+public class AppiumElementLocatorFactoryTest {
+
+    private static final WebDriver DRIVER = (WebDriver) Proxy.newProxyInstance(
+            AppiumElementLocatorFactoryTest.class.getClassLoader(), new Class<?>[] {WebDriver.class},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    return null;
+                }
+            });
+
+    @AndroidFindBy(id = "android_id")
+    @FindBy(id = "id")
+    private WebElement element;
+
+    @FindBy(id = "id")
+    @FindBys({@FindBy(id = "id"), @FindBy(tagName = "p")})
+    private WebElement invalidElement;
+
+    private static AppiumElementLocatorFactory createFactory(String platform) {
+        return new AppiumElementLocatorFactory(DRIVER, new TimeOutDuration(1, TimeUnit.SECONDS), DRIVER,
+                new DefaultElementByBuilder(platform, null), platform, null);
+    }
+
+    //fields are copied by each call, as PageFactory gets them
+    private static Field getField(String name) throws NoSuchFieldException {
+        return AppiumElementLocatorFactoryTest.class.getDeclaredField(name);
+    }
+
+    @Test
+    public void checkThatByIsBuiltOncePerFieldAndPlatform() throws NoSuchFieldException {
+        AppiumElementLocator first = (AppiumElementLocator) createFactory(null).createLocator(getField("element"));
+        AppiumElementLocator second = (AppiumElementLocator) createFactory(null).createLocator(getField("element"));
+        AppiumElementLocator android = (AppiumElementLocator) createFactory(MobilePlatform.ANDROID)
+                .createLocator(getField("element"));
+
+        assertNotSame(first, second);
+        assertSame(first.by, second.by);
+        assertNotSame(first.by, android.by);
+    }
+
+    @Test
+    public void checkThatInvalidAnnotationsKeepFailing() throws NoSuchFieldException {
+        for (int i = 0; i < 2; i++) {
+            try {
+                createFactory(null).createLocator(getField("invalidElement"));
+                fail("The error of annotations is expected");
+            } catch (IllegalArgumentException expected) {
+                //it is expected each time
+            }
+        }
+    }
+}
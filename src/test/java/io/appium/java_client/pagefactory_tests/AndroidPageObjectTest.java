@@ -21,7 +21,9 @@ import io.appium.java_client.TouchableElement;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.AndroidElement;
 import io.appium.java_client.pagefactory.*;
+import io.appium.java_client.remote.AppiumCommandExecutor;
 import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.metrics.CommandMetrics;
 import io.appium.java_client.service.local.AppiumDriverLocalService;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -32,6 +34,7 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.internal.WrapsDriver;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
 import org.openqa.selenium.remote.RemoteWebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
@@ -76,6 +79,14 @@ public class AndroidPageObjectTest {
     @AndroidFindBy(uiAutomator = "new UiSelector().resourceId(\"android:id/text1\")")
     private List<RemoteWebElement> remoteElementViews;
 
+    @OptimisticLookup
+    @AndroidFindBy(className = "android.widget.TextView")
+    private WebElement optimisticTextView;
+
+    @SnapshotLookup(ttl = 30, unit = TimeUnit.SECONDS)
+    @AndroidFindBy(className = "android.widget.TextView")
+    private List<WebElement> snapshotTextViews;
+
     @AndroidFindBys({
         @AndroidFindBy(uiAutomator = "new UiSelector().resourceId(\"android:id/list\")"),
         @AndroidFindBy(className = "android.widget.TextView")
@@ -422,4 +433,52 @@ public class AndroidPageObjectTest {
         assertEquals(true, List.class.isAssignableFrom(fakeElements.getClass()));
         assertEquals(false, ArrayList.class.equals(fakeElements.getClass()));
     }
+
+    @Test
+    public void checkThatSnapshotListIsServedFromMemory() {
+        long lookups = getLookupCount();
+        int size = snapshotTextViews.size();
+        assertNotEquals(0, size);
+        for (int i = 0; i < snapshotTextViews.size(); i++) {
+            assertNotEquals(null, snapshotTextViews.get(i).getAttribute("text"));
+        }
+        assertEquals(size, snapshotTextViews.size());
+        assertEquals(true, AndroidElement.class.isAssignableFrom(snapshotTextViews.get(0).getClass()));
+        //the list and its elements are taken from the snapshot which is found once
+        assertEquals(lookups + 1, getLookupCount());
+
+        ((RefreshesLookup) snapshotTextViews).refreshLookup();
+        assertEquals(size, snapshotTextViews.size());
+        assertEquals(lookups + 2, getLookupCount());
+    }
+
+    @Test
+    public void checkThatOptimisticLookupReusesTheFoundElement() {
+        long lookups = getLookupCount();
+        String text = optimisticTextView.getAttribute("text");
+        assertNotEquals(null, text);
+        assertEquals(text, optimisticTextView.getAttribute("text"));
+        //the element is found once and reused then
+        assertEquals(lookups + 1, getLookupCount());
+    }
+
+    @Test
+    public void checkThatCachedLookupsCanBePrefetched() {
+        AndroidPageObjectTest page = new AndroidPageObjectTest();
+        AppiumFieldDecorator decorator = new AppiumFieldDecorator(driver, 5, TimeUnit.SECONDS);
+        PageFactory.initElements(decorator, page);
+        decorator.prefetchLookups();
+
+        //prefetched elements are used without new lookups
+        long lookups = getLookupCount();
+        assertNotEquals(0, page.snapshotTextViews.size());
+        assertNotEquals(null, page.optimisticTextView.getAttribute("text"));
+        assertEquals(lookups, getLookupCount());
+    }
+
+    private static long getLookupCount() {
+        CommandMetrics metrics = ((AppiumCommandExecutor) ((AndroidDriver<?>) driver).getCommandExecutor())
+                .getMetrics();
+        return metrics.getCount(DriverCommand.FIND_ELEMENT) + metrics.getCount(DriverCommand.FIND_ELEMENTS);
+    }
 }
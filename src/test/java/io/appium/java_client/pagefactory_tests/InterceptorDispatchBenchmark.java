@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.pagefactory_tests;
+
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.TimeOutDuration;
+import io.appium.java_client.pagefactory.Widget;
+import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.MobilePlatform;
+import org.junit.Test;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the overhead of calls to fields which are decorated by {@link AppiumFieldDecorator}.
+ * Calls go through the real element, list and widget interceptors. Elements are found by
+ * a stub driver, so neither a server nor a device is needed.
+ * It is not a part of the build because its name doesn't end with "Test". It is run by JUnit
+ * from the IDE or by org.junit.runner.JUnitCore with the test class path.
+ */
+public class InterceptorDispatchBenchmark {
+
+    private static final int WARM_UP_CALLS = 200000;
+    private static final int MEASURED_CALLS = 1000000;
+    //the slowest call through a proxy which is expected. Only gross regressions fail the benchmark
+    private static final long MAX_NANOS_PER_CALL = 50000;
+
+    private static final WebDriver DRIVER = (WebDriver) Proxy.newProxyInstance(
+            InterceptorDispatchBenchmark.class.getClassLoader(),
+            new Class<?>[] {WebDriver.class, WebDriver.Options.class, WebDriver.Timeouts.class,
+                    HasCapabilities.class},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if ("findElements".equals(method.getName())) {
+                        return Arrays.<WebElement>asList(new StubElement("found 1"), new StubElement("found 2"));
+                    }
+                    if ("getCapabilities".equals(method.getName())) {
+                        DesiredCapabilities capabilities = new DesiredCapabilities();
+                        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+                        return capabilities;
+                    }
+                    if ("toString".equals(method.getName())) {
+                        return "stub driver";
+                    }
+                    //manage() and timeouts() return the stub itself
+                    if (method.getReturnType().isInstance(proxy)) {
+                        return proxy;
+                    }
+                    return null;
+                }
+            });
+
+    public static class StubElement extends RemoteWebElement {
+        private final String text;
+
+        StubElement(String text) {
+            this.text = text;
+            setId(text);
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public WebDriver getWrappedDriver() {
+            return DRIVER;
+        }
+    }
+
+    public static class StubWidget extends Widget {
+        public StubWidget(WebElement element) {
+            super(element);
+        }
+
+        public int getWeight() {
+            return 1;
+        }
+    }
+
+    //lookups are cached, so the measured calls don't reach the driver
+    public static class Page {
+        @CacheLookup
+        @FindBy(id = "element")
+        private WebElement element;
+
+        @CacheLookup
+        @FindBy(id = "elements")
+        private List<WebElement> elements;
+
+        @CacheLookup
+        @FindBy(id = "widget")
+        private StubWidget widget;
+
+        @CacheLookup
+        @FindBy(id = "widgets")
+        private List<StubWidget> widgets;
+    }
+
+    private interface Call {
+        int invoke();
+    }
+
+    private static long measure(String name, Call call, int expectedResult) {
+        long sum = 0;
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            sum += call.invoke();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            sum += call.invoke();
+        }
+        long nanosPerCall = (System.nanoTime() - start) / MEASURED_CALLS;
+        assertEquals((long) (WARM_UP_CALLS + MEASURED_CALLS) * expectedResult, sum);
+        System.out.println(name + ": " + nanosPerCall + " ns");
+        return nanosPerCall;
+    }
+
+    @Test
+    public void overheadOfProxiedCalls() {
+        final Page page = new Page();
+        PageFactory.initElements(new AppiumFieldDecorator(DRIVER, new TimeOutDuration(1, TimeUnit.SECONDS)), page);
+        final WebElement plainElement = new StubElement("found 1");
+        final List<WebElement> plainElements = new ArrayList<>(DRIVER.findElements(null));
+
+        long plainElementCall = measure("Plain element", new Call() {
+            @Override
+            public int invoke() {
+                return plainElement.getText().length();
+            }
+        }, 7);
+        long elementCall = measure("Element interceptor", new Call() {
+            @Override
+            public int invoke() {
+                return page.element.getText().length();
+            }
+        }, 7);
+        long plainListCall = measure("Plain list", new Call() {
+            @Override
+            public int invoke() {
+                return plainElements.size();
+            }
+        }, 2);
+        long elementListCall = measure("Element list interceptor", new Call() {
+            @Override
+            public int invoke() {
+                return page.elements.size();
+            }
+        }, 2);
+        long widgetCall = measure("Widget interceptor", new Call() {
+            @Override
+            public int invoke() {
+                return page.widget.getWeight();
+            }
+        }, 1);
+        long widgetListCall = measure("Widget list interceptor", new Call() {
+            @Override
+            public int invoke() {
+                return page.widgets.size();
+            }
+        }, 2);
+
+        System.out.println("Overhead of the element proxy: " + (elementCall - plainElementCall) + " ns");
+        System.out.println("Overhead of the list proxy: " + (elementListCall - plainListCall) + " ns");
+        for (long nanosPerCall: new long[] {elementCall, elementListCall, widgetCall, widgetListCall}) {
+            assertTrue(nanosPerCall < MAX_NANOS_PER_CALL);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.pagefactory_tests;
+
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.TimeOutDuration;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Checks the lazy mode of {@link AppiumFieldDecorator}. The driver is a stub
+ * which behaves like a desktop browser, so neither a server nor a browser is needed.
+ */
+public class LazyDecorationTest {
+
+    private static final AtomicInteger LOOKUPS = new AtomicInteger();
+    private static final WebDriver DRIVER = (WebDriver) Proxy.newProxyInstance(
+            LazyDecorationTest.class.getClassLoader(),
+            new Class<?>[] {WebDriver.class, WebDriver.Options.class, WebDriver.Timeouts.class},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if ("findElements".equals(method.getName())) {
+                        LOOKUPS.incrementAndGet();
+                        return Arrays.<WebElement>asList(new StubElement("found 1"), new StubElement("found 2"));
+                    }
+                    if ("toString".equals(method.getName())) {
+                        return "stub driver";
+                    }
+                    //manage() and timeouts() return the stub itself
+                    if (method.getReturnType().isInstance(proxy)) {
+                        return proxy;
+                    }
+                    return null;
+                }
+            });
+
+    public static class StubElement extends RemoteWebElement {
+        private final String text;
+
+        StubElement(String text) {
+            this.text = text;
+            setId(text);
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public WebDriver getWrappedDriver() {
+            return DRIVER;
+        }
+    }
+
+    public static class PageWithInvalidAnnotations {
+        @FindBy(id = "main")
+        @FindBys({@FindBy(id = "main"), @FindBy(tagName = "p")})
+        private WebElement invalidElement;
+    }
+
+    @FindBy(id = "main")
+    private WebElement main;
+
+    @FindBys({@FindBy(id = "main"), @FindBy(tagName = "p")})
+    private List<WebElement> foundLinks;
+
+    private AppiumFieldDecorator getDecorator() {
+        return new AppiumFieldDecorator(DRIVER, new TimeOutDuration(1, TimeUnit.SECONDS), true);
+    }
+
+    @Before
+    public void setUp() {
+        LOOKUPS.set(0);
+    }
+
+    @Test
+    public void checkThatFieldsAreNotLookedUpBeforeTheFirstUse() {
+        PageFactory.initElements(getDecorator(), this);
+        assertNotEquals(null, main);
+        assertNotEquals(null, foundLinks);
+        assertEquals(0, LOOKUPS.get());
+
+        assertEquals("found 1", main.getText());
+        assertEquals(1, LOOKUPS.get());
+    }
+
+    @Test
+    public void checkThatLazilyDecoratedFieldsWork() {
+        PageFactory.initElements(getDecorator(), this);
+        assertEquals("found 1", main.getText());
+        assertEquals(2, foundLinks.size());
+        assertEquals("found 2", foundLinks.get(1).getText());
+    }
+
+    @Test
+    public void checkThatInvalidAnnotationsFailOnTheFirstUse() {
+        PageWithInvalidAnnotations page = new PageWithInvalidAnnotations();
+        PageFactory.initElements(getDecorator(), page);
+        assertNotEquals(null, page.invalidElement);
+        try {
+            page.invalidElement.getText();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(0, LOOKUPS.get());
+            return;
+        }
+        throw new AssertionError("The error of annotations is expected");
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.pagefactory_tests;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.OptimisticLookup;
+import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.MobilePlatform;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.support.PageFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * These tests use a local HTTP server which pretends to be appium. Every lookup finds
+ * a new element: "1", "2" and so on. Elements which are marked as stale by the test
+ * are reported as stale by the server.
+ * Neither appium nor a device is needed.
+ */
+public class OptimisticLookupTest {
+
+    private HttpServer server;
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final Set<String> staleElements = new CopyOnWriteArraySet<>();
+    private AndroidDriver<WebElement> driver;
+
+    @OptimisticLookup
+    @AndroidFindBy(id = "some_id")
+    private WebElement element;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String path = exchange.getRequestURI().getPath();
+                String body = "{\"sessionId\":\"1\",\"status\":0,\"value\":null}";
+                if ("/wd/hub/session".equals(path)) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"platformName\":\"Android\"}}";
+                } else if (path.endsWith("/context")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":\"NATIVE_APP\"}";
+                } else if (path.endsWith("/elements")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":[{\"ELEMENT\":\""
+                            + lookups.incrementAndGet() + "\"}]}";
+                } else if (path.endsWith("/text")) {
+                    //the path is /wd/hub/session/1/element/{id}/text
+                    String id = path.split("/")[6];
+                    body = staleElements.contains(id)
+                            ? "{\"sessionId\":\"1\",\"status\":10,\"value\":{\"message\":\"stale element\"}}"
+                            : "{\"sessionId\":\"1\",\"status\":0,\"value\":\"text of " + id + "\"}";
+                }
+                byte[] bytes = body.getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(bytes);
+                }
+            }
+        });
+        server.start();
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+        driver = new AndroidDriver<>(new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub"),
+                capabilities);
+        PageFactory.initElements(new AppiumFieldDecorator(driver, 5, TimeUnit.SECONDS), this);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void checkThatFoundElementIsReused() {
+        assertEquals("text of 1", element.getText());
+        assertEquals("text of 1", element.getText());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void checkThatStaleElementIsFoundAgainAndTheActionIsRetried() {
+        assertEquals("text of 1", element.getText());
+        staleElements.add("1");
+
+        assertEquals("text of 2", element.getText());
+        assertEquals(2, lookups.get());
+        //the element which has been found again is reused
+        assertEquals("text of 2", element.getText());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void checkThatTheActionIsRetriedOnce() {
+        assertEquals("text of 1", element.getText());
+        staleElements.add("1");
+        staleElements.add("2");
+
+        try {
+            element.getText();
+        } catch (StaleElementReferenceException expected) {
+            assertEquals(2, lookups.get());
+            return;
+        }
+        throw new AssertionError("The stale element is expected to be reported after the retry");
+    }
+}
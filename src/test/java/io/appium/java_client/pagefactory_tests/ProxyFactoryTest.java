@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.pagefactory_tests;
+
+import io.appium.java_client.pagefactory.utils.ProxyFactory;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProxyFactoryTest {
+
+    //returns the given size and calls real methods otherwise
+    private static class SizeInterceptor implements MethodInterceptor {
+        private final int size;
+
+        SizeInterceptor(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
+            if ("size".equals(method.getName())) {
+                return size;
+            }
+            return proxy.invokeSuper(obj, args);
+        }
+    }
+
+    public static class Named {
+        private final String name;
+
+        public Named(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void checkThatProxyClassIsReusedAndInterceptorsStayDistinct() {
+        List<Object> first = ProxyFactory.getEnhancedProxy(ArrayList.class, new SizeInterceptor(1));
+        List<Object> second = ProxyFactory.getEnhancedProxy(ArrayList.class, new SizeInterceptor(2));
+
+        assertEquals(first.getClass(), second.getClass());
+        assertEquals(1, first.size());
+        assertEquals(2, second.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void checkThatOtherInterfacesGiveAnotherProxyClass() {
+        List<Object> plain = ProxyFactory.getEnhancedProxy(ArrayList.class, new SizeInterceptor(1));
+        List<Object> serializable = ProxyFactory.getEnhancedProxy(ArrayList.class,
+                new Class<?>[] {Serializable.class, Cloneable.class}, new Class<?>[] {}, new Object[] {},
+                new SizeInterceptor(2));
+
+        assertNotEquals(plain.getClass(), serializable.getClass());
+        assertEquals(2, serializable.size());
+    }
+
+    @Test
+    public void checkThatConstructorValuesArePassedToEachProxy() {
+        Named first = ProxyFactory.getEnhancedProxy(Named.class, new Class<?>[] {String.class},
+                new Object[] {"first"}, new SizeInterceptor(0));
+        Named second = ProxyFactory.getEnhancedProxy(Named.class, new Class<?>[] {String.class},
+                new Object[] {"second"}, new SizeInterceptor(0));
+
+        assertEquals(first.getClass(), second.getClass());
+        assertTrue(Named.class.isAssignableFrom(first.getClass()));
+        assertEquals("first", first.getName());
+        assertEquals("second", second.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void checkThatProxyClassIsReusedAfterProxiesAreCollected() {
+        WeakReference<Class<?>> proxyClass = new WeakReference<Class<?>>(
+                ProxyFactory.getEnhancedProxy(LinkedList.class, new SizeInterceptor(1)).getClass());
+        System.gc();
+
+        List<Object> proxy = ProxyFactory.getEnhancedProxy(LinkedList.class, new SizeInterceptor(2));
+        assertEquals(proxyClass.get(), proxy.getClass());
+        assertEquals(2, proxy.size());
+    }
+}
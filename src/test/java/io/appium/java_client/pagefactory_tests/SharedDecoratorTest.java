@@ -0,0 +1,210 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.pagefactory_tests;
+
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.TimeOutDuration;
+import io.appium.java_client.pagefactory.Widget;
+import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.MobilePlatform;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that one {@link AppiumFieldDecorator} may be shared by threads. The driver is a stub
+ * which finds one element per lookup. The text of the element is the string value of the By.
+ */
+public class SharedDecoratorTest {
+
+    private static final int THREADS = 16;
+    private static final AtomicInteger CREATED_WIDGETS = new AtomicInteger();
+
+    private static final WebDriver DRIVER = (WebDriver) Proxy.newProxyInstance(
+            SharedDecoratorTest.class.getClassLoader(),
+            new Class<?>[] {WebDriver.class, WebDriver.Options.class, WebDriver.Timeouts.class,
+                    HasCapabilities.class},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if ("findElements".equals(method.getName())) {
+                        return Collections.<WebElement>singletonList(new StubElement(args[0].toString()));
+                    }
+                    if ("getCapabilities".equals(method.getName())) {
+                        DesiredCapabilities capabilities = new DesiredCapabilities();
+                        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+                        return capabilities;
+                    }
+                    if ("toString".equals(method.getName())) {
+                        return "stub driver";
+                    }
+                    //manage() and timeouts() return the stub itself
+                    if (method.getReturnType().isInstance(proxy)) {
+                        return proxy;
+                    }
+                    return null;
+                }
+            });
+
+    public static class StubElement extends RemoteWebElement {
+        private final String text;
+
+        StubElement(String text) {
+            this.text = text;
+            setId(text);
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            return Collections.<WebElement>singletonList(new StubElement(text + " > " + by));
+        }
+
+        @Override
+        public WebDriver getWrappedDriver() {
+            return DRIVER;
+        }
+    }
+
+    public static class NestedWidget extends Widget {
+        @FindBy(id = "nested")
+        private WebElement nested;
+
+        public NestedWidget(WebElement element) {
+            super(element);
+            CREATED_WIDGETS.incrementAndGet();
+        }
+
+        public String getNestedText() {
+            return nested.getText();
+        }
+    }
+
+    public static class Page {
+        @FindBy(id = "id0") private WebElement element0;
+        @FindBy(id = "id1") private WebElement element1;
+        @FindBy(id = "id2") private WebElement element2;
+        @FindBy(id = "id3") private WebElement element3;
+        @FindBy(id = "id4") private WebElement element4;
+        @FindBy(id = "id5") private WebElement element5;
+        @FindBy(id = "id6") private WebElement element6;
+        @FindBy(id = "id7") private WebElement element7;
+
+        @CacheLookup
+        @FindBy(id = "widget")
+        private NestedWidget widget;
+
+        private List<String> getTexts() {
+            List<String> texts = new ArrayList<>();
+            for (WebElement element: new WebElement[] {element0, element1, element2, element3,
+                    element4, element5, element6, element7}) {
+                texts.add(element.getText());
+            }
+            return texts;
+        }
+    }
+
+    private static <T> List<T> runConcurrently(final Callable<T> task) throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<T>() {
+                    @Override
+                    public T call() throws Exception {
+                        barrier.await();
+                        return task.call();
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future: futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void checkThatEachFieldGetsItsOwnLocatorWhenPagesAreInitializedConcurrently() throws Exception {
+        final AppiumFieldDecorator decorator = new AppiumFieldDecorator(DRIVER,
+                new TimeOutDuration(1, TimeUnit.SECONDS));
+        List<List<String>> results = runConcurrently(new Callable<List<String>>() {
+            @Override
+            public List<String> call() {
+                Page page = new Page();
+                PageFactory.initElements(decorator, page);
+                return page.getTexts();
+            }
+        });
+
+        for (List<String> texts: results) {
+            for (int i = 0; i < texts.size(); i++) {
+                assertEquals(By.id("id" + i).toString(), texts.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void checkThatSharedWidgetIsCreatedOnce() throws Exception {
+        final Page page = new Page();
+        PageFactory.initElements(new AppiumFieldDecorator(DRIVER, new TimeOutDuration(1, TimeUnit.SECONDS)), page);
+        CREATED_WIDGETS.set(0);
+
+        List<String> results = runConcurrently(new Callable<String>() {
+            @Override
+            public String call() {
+                return page.widget.getNestedText();
+            }
+        });
+
+        assertEquals(1, CREATED_WIDGETS.get());
+        for (String text: results) {
+            assertEquals(By.id("widget") + " > " + By.id("nested"), text);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.pagefactory_tests;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.RefreshesLookup;
+import io.appium.java_client.pagefactory.SnapshotLookup;
+import io.appium.java_client.remote.MobileCapabilityType;
+import io.appium.java_client.remote.MobilePlatform;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.support.PageFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * These tests use a local HTTP server which pretends to be appium. It finds nothing
+ * until elements are added by the test. Neither appium nor a device is needed.
+ */
+public class SnapshotLookupTest {
+
+    private HttpServer server;
+    private final AtomicInteger lookups = new AtomicInteger();
+    private volatile int foundElements;
+    //lookups wait for it when it is set by the test
+    private volatile CountDownLatch blockedLookups;
+
+    @SnapshotLookup
+    @AndroidFindBy(id = "some_id")
+    private List<WebElement> elements;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String path = exchange.getRequestURI().getPath();
+                String body = "{\"sessionId\":\"1\",\"status\":0,\"value\":null}";
+                if ("/wd/hub/session".equals(path)) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"platformName\":\"Android\"}}";
+                } else if (path.endsWith("/context")) {
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":\"NATIVE_APP\"}";
+                } else if (path.endsWith("/elements")) {
+                    lookups.incrementAndGet();
+                    CountDownLatch latch = blockedLookups;
+                    if (latch != null) {
+                        try {
+                            latch.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    StringBuilder found = new StringBuilder();
+                    for (int i = 0; i < foundElements; i++) {
+                        found.append(i == 0 ? "" : ",").append("{\"ELEMENT\":\"").append(i).append("\"}");
+                    }
+                    body = "{\"sessionId\":\"1\",\"status\":0,\"value\":[" + found + "]}";
+                }
+                byte[] bytes = body.getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(bytes);
+                }
+            }
+        });
+        server.start();
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+        AndroidDriver<WebElement> driver = new AndroidDriver<>(
+                new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub"), capabilities);
+        PageFactory.initElements(new AppiumFieldDecorator(driver, 1, TimeUnit.SECONDS), this);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void checkThatEmptySnapshotIsWaitedForOnce() {
+        assertTrue(elements.isEmpty());
+        int waitingLookups = lookups.get();
+
+        long start = System.currentTimeMillis();
+        assertEquals(0, elements.size());
+        assertTrue(elements.isEmpty());
+        assertTrue(System.currentTimeMillis() - start < 500);
+        assertEquals(waitingLookups, lookups.get());
+
+        foundElements = 2;
+        ((RefreshesLookup) elements).refreshLookup();
+        assertEquals(2, elements.size());
+    }
+
+    @Test
+    public void checkThatLocatorIsNotLockedWhileLookupIsInProgress() throws InterruptedException {
+        foundElements = 1;
+        assertEquals(1, elements.size());
+
+        blockedLookups = new CountDownLatch(1);
+        ((RefreshesLookup) elements).refreshLookup();
+        Thread lookup = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                elements.size();
+            }
+        });
+        lookup.start();
+        while (lookups.get() < 2) {
+            Thread.sleep(10);
+        }
+        long start = System.currentTimeMillis();
+        ((RefreshesLookup) elements).refreshLookup();
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals(true, lookup.isAlive());
+        blockedLookups.countDown();
+        lookup.join();
+    }
+}
@@ -17,6 +17,7 @@
 package io.appium.java_client.pagefactory_tests;
 
 import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.PollingLookup;
 import io.appium.java_client.pagefactory.TimeOutDuration;
 import io.appium.java_client.pagefactory.WithTimeout;
 import org.junit.After;
@@ -50,6 +51,11 @@ public class TimeOutResetTest {
             @FindBy(className = "OneAnotherClassWhichDoesNotExist")})
     private List<WebElement> stubElements2;
 
+    @PollingLookup
+    @FindAll({@FindBy(className = "ClassWhichDoesNotExist"),
+            @FindBy(className = "OneAnotherClassWhichDoesNotExist")})
+    private List<WebElement> stubElements3;
+
     private TimeOutDuration timeOutDuration;
 
 	@Before
@@ -140,4 +146,17 @@ public class TimeOutResetTest {
 
     }
 
+    @Test
+    public void test3() {
+        checkTimeDifference(AppiumFieldDecorator.DEFAULT_IMPLICITLY_WAIT_TIMEOUT, AppiumFieldDecorator.DEFAULT_TIMEUNIT,
+                getBenchMark(stubElements3));
+        System.out.println(String.valueOf(AppiumFieldDecorator.DEFAULT_IMPLICITLY_WAIT_TIMEOUT)
+                + " " + AppiumFieldDecorator.DEFAULT_TIMEUNIT.toString() + ": Fine");
+
+        timeOutDuration.setTime(3, TimeUnit.SECONDS);
+        checkTimeDifference(3, TimeUnit.SECONDS, getBenchMark(stubElements3));
+        System.out.println("Change time: " + String.valueOf(3) + " "
+                + TimeUnit.SECONDS.toString() + ": Fine");
+    }
+
 }
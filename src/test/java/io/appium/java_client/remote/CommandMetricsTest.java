@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.remote;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.remote.metrics.CommandMetrics;
+import io.appium.java_client.remote.metrics.CommandMetricsListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * These tests use a local HTTP server which pretends to be appium.
+ * Neither appium nor a device is needed.
+ */
+public class CommandMetricsTest {
+
+    private static final CommandMetricsListener FAILING_LISTENER = new CommandMetricsListener() {
+        @Override
+        public void onCommandExecuted(String commandName, long durationNanos, long requestBytes,
+                                      long responseBytes, boolean isFailed) {
+            throw new IllegalStateException("The listener has failed");
+        }
+    };
+
+    private HttpServer server;
+    private AppiumCommandExecutor executor;
+    //is notified after the failing listener
+    private final CommandMetrics otherMetrics = new CommandMetrics();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = "{\"sessionId\":\"1\",\"status\":0,\"value\":{\"platformName\":\"Android\"}}"
+                        .getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+        });
+        server.start();
+        executor = new AppiumCommandExecutor(ImmutableMap.<String, CommandInfo>of(),
+                new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub"));
+        executor.addMetricsListener(FAILING_LISTENER);
+        executor.addMetricsListener(otherMetrics);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void checkThatExecutedCommandIsMeasured() throws IOException {
+        Response response = executor.execute(new Command(null, DriverCommand.NEW_SESSION,
+                ImmutableMap.of("desiredCapabilities", new DesiredCapabilities())));
+
+        assertEquals("1", response.getSessionId());
+        for (CommandMetrics metrics: new CommandMetrics[] {executor.getMetrics(), otherMetrics}) {
+            assertEquals(1, metrics.getCount(DriverCommand.NEW_SESSION));
+            assertEquals(0, metrics.getErrorCount(DriverCommand.NEW_SESSION));
+            assertTrue(metrics.getRequestBytes(DriverCommand.NEW_SESSION) > 0);
+            assertTrue(metrics.getResponseBytes(DriverCommand.NEW_SESSION) > 0);
+        }
+    }
+
+    @Test
+    public void checkThatFailedListenerDoesNotReplaceTheErrorOfTheCommand() throws IOException {
+        try {
+            executor.execute(new Command(new SessionId("1"), "unknownCommand",
+                    ImmutableMap.<String, Object>of()));
+        } catch (UnsupportedCommandException expected) {
+            for (CommandMetrics metrics: new CommandMetrics[] {executor.getMetrics(), otherMetrics}) {
+                assertEquals(1, metrics.getCount("unknownCommand"));
+                assertEquals(1, metrics.getErrorCount("unknownCommand"));
+            }
+            return;
+        }
+        throw new AssertionError("The unknown command is expected to be rejected");
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.remote;
+
+import com.google.common.base.Charsets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * These tests use a local HTTP server. Neither appium nor a device is needed.
+ */
+public class PooledHttpClientFactoryTest {
+
+    private static final String USER = "user";
+    private static final String KEY = "key";
+
+    private HttpServer server;
+    private PooledHttpClientFactory factory;
+    //ports of clients which have sent requests
+    private final Set<Integer> clientPorts = new ConcurrentSkipListSet<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+                authorizations.add(String.valueOf(authorization));
+                byte[] body = "{\"status\":0,\"value\":null}".getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+        });
+        server.start();
+        factory = new PooledHttpClientFactory.Builder().build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        factory.close();
+        server.stop(0);
+    }
+
+    private URL getUrl(String userInfo) throws IOException {
+        return new URL("http://" + (userInfo == null ? "" : userInfo + "@") + "127.0.0.1:"
+                + server.getAddress().getPort() + "/wd/hub");
+    }
+
+    private static int getStatus(HttpClient client) throws IOException {
+        HttpResponse response = client.execute(new HttpRequest(HttpMethod.GET, "/wd/hub/status"), true);
+        return response.getStatus();
+    }
+
+    @Test
+    public void checkThatConnectionIsReusedByClientsOfTheSameServer() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, getStatus(factory.createClient(getUrl(null))));
+        }
+        assertEquals(1, clientPorts.size());
+        assertEquals(1, factory.getOpenConnections());
+    }
+
+    @Test
+    public void checkThatCredentialsOfTheUrlAreSentWithTheFirstRequest() throws IOException {
+        HttpClient client = factory.createClient(getUrl(USER + ":" + KEY));
+        assertEquals(200, getStatus(client));
+        assertEquals(200, getStatus(client));
+
+        String expected = "Basic " + Base64.encodeBase64String((USER + ":" + KEY).getBytes(Charsets.UTF_8));
+        assertEquals(2, authorizations.size());
+        for (String authorization: authorizations) {
+            assertEquals(expected, authorization);
+        }
+        //the authenticating client uses the same pool
+        assertEquals(1, factory.getOpenConnections());
+    }
+
+    @Test
+    public void checkThatCredentialsAreNotSentWhenTheUrlHasNoUserInfo() throws IOException {
+        assertEquals(200, getStatus(factory.createClient(getUrl(null))));
+        assertEquals("null", authorizations.get(0));
+    }
+
+    @Test
+    public void checkThatTheDefaultFactoryIsUsableAfterItIsClosed() throws IOException {
+        try (PooledHttpClientFactory defaultFactory = PooledHttpClientFactory.getDefault()) {
+            assertEquals(200, getStatus(defaultFactory.createClient(getUrl(null))));
+        }
+        assertEquals(200, getStatus(PooledHttpClientFactory.getDefault().createClient(getUrl(null))));
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.remote;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.android.AndroidDriver;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.ErrorHandler;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.internal.ApacheHttpClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * These tests use a local HTTP server. Neither appium nor a device is needed.
+ */
+public class StreamingFileTransferTest {
+
+    private static final String CREDENTIALS = "user:key";
+    private static final SessionId SESSION_ID = new SessionId("1");
+    private static final byte[] CONTENT = "some content of the file".getBytes(Charsets.UTF_8);
+
+    private HttpServer server;
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private AppiumCommandExecutor executor;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                authorizations.add(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+                requestBodies.add(IOUtils.toString(exchange.getRequestBody(), Charsets.UTF_8.name()));
+                String path = exchange.getRequestURI().getPath();
+                String value = "null";
+                if (path.endsWith("pull_file")) {
+                    value = "\"" + Base64.encodeBase64String(CONTENT) + "\"";
+                } else if (path.endsWith("/session")) {
+                    value = "{\"platformName\":\"Android\"}";
+                }
+                byte[] body = ("{\"sessionId\":\"1\",\"status\":0,\"value\":" + value + "}")
+                        .getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+        });
+        server.start();
+        URL url = new URL("http://" + CREDENTIALS + "@127.0.0.1:" + server.getAddress().getPort() + "/wd/hub");
+        executor = new AppiumCommandExecutor(ImmutableMap.<String, CommandInfo>of(), url);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void assertThatCredentialsWereSent() {
+        String expected = "Basic " + Base64.encodeBase64String(CREDENTIALS.getBytes(Charsets.UTF_8));
+        assertEquals(1, authorizations.size());
+        assertEquals(expected, authorizations.get(0));
+    }
+
+    @Test
+    public void checkThatPushedFileIsSentWithCredentialsAndMeasured() {
+        StreamingFileTransfer fileTransfer = executor.createFileTransfer(new ErrorHandler());
+        fileTransfer.push(SESSION_ID, MobileCommand.PUSH_FILE, "/session/:sessionId/appium/device/push_file",
+                ImmutableMap.of("path", "/data/local/tmp/file"), "data", new ByteArrayInputStream(CONTENT), -1);
+
+        assertThatCredentialsWereSent();
+        assertEquals("{\"path\":\"/data/local/tmp/file\",\"data\":\"" + Base64.encodeBase64String(CONTENT) + "\"}",
+                requestBodies.get(0));
+        assertEquals(1, executor.getMetrics().getCount(MobileCommand.PUSH_FILE));
+        assertEquals(0, executor.getMetrics().getErrorCount(MobileCommand.PUSH_FILE));
+        assertEquals(requestBodies.get(0).length(), executor.getMetrics().getRequestBytes(MobileCommand.PUSH_FILE));
+    }
+
+    @Test
+    public void checkThatPulledFileIsReceivedWithCredentialsAndMeasured() {
+        StreamingFileTransfer fileTransfer = executor.createFileTransfer(new ErrorHandler());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        fileTransfer.pull(SESSION_ID, MobileCommand.PULL_FILE, "/session/:sessionId/appium/device/pull_file",
+                ImmutableMap.of("path", "/data/local/tmp/file"), outputStream);
+
+        assertThatCredentialsWereSent();
+        assertArrayEquals(CONTENT, outputStream.toByteArray());
+        assertEquals(1, executor.getMetrics().getCount(MobileCommand.PULL_FILE));
+        assertTrue(executor.getMetrics().getResponseBytes(MobileCommand.PULL_FILE) > CONTENT.length);
+    }
+
+    @Test
+    public void checkThatFilesAreTransferredByTheFactoryOfTheUser() throws IOException {
+        final AtomicInteger sentRequests = new AtomicInteger();
+        HttpClient.Factory userFactory = new HttpClient.Factory() {
+            private final HttpClient.Factory factory = new ApacheHttpClient.Factory();
+
+            @Override
+            public HttpClient createClient(URL url) {
+                final HttpClient client = factory.createClient(url);
+                return new HttpClient() {
+                    @Override
+                    public HttpResponse execute(HttpRequest request, boolean followRedirects) throws IOException {
+                        sentRequests.incrementAndGet();
+                        return client.execute(request, followRedirects);
+                    }
+                };
+            }
+        };
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub");
+        assertEquals(null, new AppiumCommandExecutor(ImmutableMap.<String, CommandInfo>of(), url, userFactory)
+                .createFileTransfer(new ErrorHandler()));
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability(MobileCapabilityType.PLATFORM_NAME, MobilePlatform.ANDROID);
+        AndroidDriver<WebElement> driver = new AndroidDriver<>(url, userFactory, capabilities);
+        int requests = sentRequests.get();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        driver.pullFile("/data/local/tmp/file", outputStream);
+        assertArrayEquals(CONTENT, outputStream.toByteArray());
+
+        driver.pushFile("/data/local/tmp/file", new ByteArrayInputStream(CONTENT));
+        assertTrue(requestBodies.get(requestBodies.size() - 1)
+                .contains("\"data\":\"" + Base64.encodeBase64String(CONTENT) + "\""));
+        assertEquals(requests + 2, sentRequests.get());
+    }
+
+    @Test
+    public void checkThatEncodedContentCanBeReadOnce() throws IOException {
+        byte[] prefix = "{\"data\":\"".getBytes(Charsets.UTF_8);
+        StreamingFileTransfer.Base64Entity entity = new StreamingFileTransfer.Base64Entity(prefix,
+                new ByteArrayInputStream(CONTENT), CONTENT.length);
+        assertFalse(entity.isRepeatable());
+        byte[] content = IOUtils.toByteArray(entity.getContent());
+        assertEquals("{\"data\":\"" + Base64.encodeBase64String(CONTENT) + "\"}",
+                new String(content, Charsets.UTF_8));
+        assertEquals(entity.getContentLength(), content.length);
+
+        try {
+            entity.writeTo(new ByteArrayOutputStream());
+        } catch (IllegalStateException expected) {
+            return;
+        }
+        throw new AssertionError("The consumed content is expected to be rejected");
+    }
+}
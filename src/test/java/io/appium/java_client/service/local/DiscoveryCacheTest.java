@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.appium.java_client.service.local;
+
+import com.google.common.base.Charsets;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * These tests use temporary files instead of found Node.js and appium. Neither appium nor Node.js is needed.
+ * Each test uses its own key because found paths are kept in memory for the whole JVM.
+ */
+public class DiscoveryCacheTest {
+
+    private static final AtomicInteger KEYS = new AtomicInteger();
+
+    private File directory;
+    private File cacheFile;
+    private File nodeBinary;
+    private String key;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("discovery", "");
+        directory.delete();
+        directory.mkdirs();
+        cacheFile = new File(directory, "cache.properties");
+        nodeBinary = new File(directory, "node");
+        FileUtils.writeStringToFile(nodeBinary, "binary", Charsets.UTF_8.name());
+        key = "node" + KEYS.incrementAndGet();
+        System.setProperty(AppiumServiceBuilder.DISCOVERY_CACHE, cacheFile.getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        System.clearProperty(AppiumServiceBuilder.DISCOVERY_CACHE);
+        FileUtils.deleteDirectory(directory);
+    }
+
+    //the same as the file written by another JVM
+    private void writeCacheFile(long modified, String length, String environmentPath) throws IOException {
+        String content = key + ".file=" + nodeBinary.getAbsolutePath().replace("\\", "\\\\") + "\n"
+                + key + ".modified=" + modified + "\n"
+                + key + ".length=" + length + "\n"
+                + key + ".envPath=" + environmentPath.replace("\\", "\\\\") + "\n";
+        FileUtils.writeStringToFile(cacheFile, content, Charsets.UTF_8.name());
+    }
+
+    private static String getEnvironmentPath() {
+        String path = System.getenv("PATH");
+        return path == null ? "" : path;
+    }
+
+    @Test
+    public void checkThatFoundFileIsReused() {
+        DiscoveryCache.put(key, nodeBinary);
+        assertEquals(nodeBinary.getAbsoluteFile(), DiscoveryCache.get(key));
+        assertTrue(cacheFile.isFile());
+    }
+
+    @Test
+    public void checkThatFileFoundByAnotherJvmIsReused() throws IOException {
+        writeCacheFile(nodeBinary.lastModified(), String.valueOf(nodeBinary.length()), getEnvironmentPath());
+        assertEquals(nodeBinary.getAbsoluteFile(), DiscoveryCache.get(key));
+    }
+
+    @Test
+    public void checkThatFileIsNotReusedWhenPathIsChanged() throws IOException {
+        writeCacheFile(nodeBinary.lastModified(), String.valueOf(nodeBinary.length()),
+                getEnvironmentPath() + File.pathSeparator + "/another/bin");
+        assertEquals(null, DiscoveryCache.get(key));
+    }
+
+    @Test
+    public void checkThatFileIsNotReusedWhenItIsModified() {
+        DiscoveryCache.put(key, nodeBinary);
+        assertTrue(nodeBinary.setLastModified(nodeBinary.lastModified() - 10000));
+        assertEquals(null, DiscoveryCache.get(key));
+    }
+
+    @Test
+    public void checkThatCorruptCacheFileIsIgnoredAndOverwritten() throws IOException {
+        writeCacheFile(nodeBinary.lastModified(), "not a number", getEnvironmentPath());
+        assertEquals(null, DiscoveryCache.get(key));
+
+        FileUtils.writeByteArrayToFile(cacheFile, new byte[] {0, (byte) 0xff, '=', '\\'});
+        assertEquals(null, DiscoveryCache.get(key));
+
+        DiscoveryCache.put(key, nodeBinary);
+        assertEquals(nodeBinary.getAbsoluteFile(), DiscoveryCache.get(key));
+        assertTrue(FileUtils.readFileToString(cacheFile, Charsets.UTF_8.name()).contains(key + ".length=6"));
+    }
+
+    @Test
+    public void checkThatScriptIsExtractedOnceAndAgainWhenItIsDeleted() throws IOException {
+        File script = Scripts.GET_NODE_JS_EXECUTABLE.getScriptFile();
+        byte[] content = FileUtils.readFileToByteArray(script);
+        assertNotEquals(0, content.length);
+        assertEquals(script, Scripts.GET_NODE_JS_EXECUTABLE.getScriptFile());
+
+        assertTrue(script.delete());
+        File extractedAgain = Scripts.GET_NODE_JS_EXECUTABLE.getScriptFile();
+        assertTrue(extractedAgain.isFile());
+        assertArrayEquals(content, FileUtils.readFileToByteArray(extractedAgain));
+    }
+}